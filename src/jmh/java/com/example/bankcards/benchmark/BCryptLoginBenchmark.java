@@ -0,0 +1,39 @@
+package com.example.bankcards.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка пароля при логине в зависимости от стоимости BCrypt (app.security.bcrypt-strength).
+ * Один поток — результат в ops/s равен числу логинов в секунду на одно ядро;
+ * пропускная способность пула логинов ≈ это значение × app.login.threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class BCryptLoginBenchmark {
+    static final String PASSWORD = "password";
+
+    @Param({"8", "10", "12"})
+    int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(PASSWORD, hash);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.dto.CardRespDto;
+import com.example.bankcards.entity.CreditCard;
+import com.example.bankcards.util.CryptoUtils;
+import com.example.bankcards.util.MaskSerializer;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Маппинг CreditCard -> CardRespDto (с расшифровкой номера) и его
+ * JSON-сериализация с маскированием номера.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CardMappingBenchmark {
+    private CryptoUtils cryptoUtils;
+    private CreditCard card;
+    private CardRespDto dto;
+    private ObjectMapper objectMapper;
+    private MaskSerializer maskSerializer;
+    private JsonGenerator generator;
+
+    @Setup
+    public void setUp() throws IOException {
+        cryptoUtils = new CryptoUtils(CryptoUtilsBenchmark.KEY,
+                CryptoUtilsBenchmark.VECTOR, CryptoUtilsBenchmark.HMAC_KEY);
+
+        card = CreditCard.builder()
+                .id(42L)
+                .userId(7L)
+                .cardHolder("TOM SMITH")
+                .cardNumber(cryptoUtils.encrypt(CryptoUtilsBenchmark.CARD_NUMBER))
+                .expiryDate(LocalDate.of(2029, 12, 31))
+                .balance(BigInteger.valueOf(123_456L))
+                .build();
+        dto = CardRespDto.toDto(card, cryptoUtils);
+
+        objectMapper = new ObjectMapper();
+        maskSerializer = new MaskSerializer();
+        generator = objectMapper.createGenerator(OutputStream.nullOutputStream());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        generator.close();
+    }
+
+    @Benchmark
+    public CardRespDto toDto() {
+        return CardRespDto.toDto(card, cryptoUtils);
+    }
+
+    @Benchmark
+    public void maskSerializer() throws IOException {
+        maskSerializer.serialize(CryptoUtilsBenchmark.CARD_NUMBER, generator, null);
+        generator.flush();
+    }
+
+    @Benchmark
+    public byte[] serializeDto() throws IOException {
+        return objectMapper.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public byte[] toDtoAndSerialize() throws IOException {
+        return objectMapper.writeValueAsBytes(CardRespDto.toDto(card, cryptoUtils));
+    }
+}
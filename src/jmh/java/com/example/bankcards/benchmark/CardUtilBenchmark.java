@@ -0,0 +1,65 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.util.CardUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Утилиты горячего пути маппинга карт. Запускать с "-prof gc"
+ * (по умолчанию в профиле jmh), чтобы видеть аллокации на операцию.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CardUtilBenchmark {
+    // не final: иначе JIT может свернуть вычисления в константы
+    private LocalDate expiryDate;
+    private BigInteger cents;
+    private BigDecimal amount;
+    private String cardNumber;
+
+    @Setup
+    public void setUp() {
+        expiryDate = LocalDate.of(2029, 12, 31);
+        cents = BigInteger.valueOf(123_456_789L);
+        amount = new BigDecimal("1234567.89");
+        cardNumber = CryptoUtilsBenchmark.CARD_NUMBER;
+    }
+
+    @Benchmark
+    public String generateCardNumber() {
+        return CardUtil.generateCardNumber();
+    }
+
+    @Benchmark
+    public LocalDate parseExpiryDate() {
+        return CardUtil.parseExpiryDate("12/29");
+    }
+
+    @Benchmark
+    public String formatExpiryDate() {
+        return CardUtil.formatExpiryDate(expiryDate);
+    }
+
+    @Benchmark
+    public BigDecimal fromCentsToDecimal() {
+        return CardUtil.fromCentsToDecimal(cents);
+    }
+
+    @Benchmark
+    public BigInteger getAmountAsBigInteger() {
+        return CardUtil.getAmountAsBigInteger(amount);
+    }
+
+    @Benchmark
+    public String mask() {
+        return CardUtil.mask(cardNumber);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.util.CryptoUtils;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Шифрование номера карты: текущая реализация CryptoUtils (ключи собраны заранее,
+ * Cipher на поток) против прежней (Cipher.getInstance и новые ключи на каждый вызов).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CryptoUtilsBenchmark {
+    static final String KEY = "1234567890123456";
+    static final String VECTOR = "abcdef9876543210";
+    static final String HMAC_KEY = "6d0c1e7f3a9b4c2d8e5f7a1b3c9d2e4f";
+    static final String CARD_NUMBER = "4000006806224829";
+
+    private CryptoUtils cryptoUtils;
+    private String encrypted;
+    private byte[] plainBytes;
+    private byte[] encryptedBytes;
+
+    @Setup
+    public void setUp() {
+        cryptoUtils = new CryptoUtils(KEY, VECTOR, HMAC_KEY);
+        encrypted = cryptoUtils.encrypt(CARD_NUMBER);
+        plainBytes = CARD_NUMBER.getBytes();
+        encryptedBytes = cryptoUtils.encrypt(plainBytes);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return cryptoUtils.encrypt(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return cryptoUtils.decrypt(encrypted);
+    }
+
+    @Benchmark
+    public byte[] encryptBytes() {
+        return cryptoUtils.encrypt(plainBytes);
+    }
+
+    @Benchmark
+    public byte[] decryptBytes() {
+        return cryptoUtils.decrypt(encryptedBytes);
+    }
+
+    @Benchmark
+    public String hash() {
+        return cryptoUtils.hash(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public String legacyEncrypt() throws Exception {
+        Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+        cipher.init(Cipher.ENCRYPT_MODE,
+                new SecretKeySpec(KEY.getBytes(), "AES"),
+                new IvParameterSpec(VECTOR.getBytes()));
+        return Base64.getEncoder().encodeToString(cipher.doFinal(CARD_NUMBER.getBytes()));
+    }
+
+    @Benchmark
+    public String legacyDecrypt() throws Exception {
+        Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+        cipher.init(Cipher.DECRYPT_MODE,
+                new SecretKeySpec(KEY.getBytes(), "AES"),
+                new IvParameterSpec(VECTOR.getBytes()));
+        return new String(cipher.doFinal(Base64.getDecoder().decode(encrypted)));
+    }
+}
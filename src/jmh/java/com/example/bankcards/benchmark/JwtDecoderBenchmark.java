@@ -0,0 +1,63 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.security.CachingJwtDecoder;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.*;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Декодирование одного и того же токена (опрос клиентом): NimbusJwtDecoder
+ * (HMAC-подпись + разбор claims) против {@link CachingJwtDecoder}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtDecoderBenchmark {
+    static final String SECRET = "iNa0fyrTACIZxkT2fu9kET4FtF1BJbIviNa0fyrTACIZxkT2fu9kET4FtF1BJbIv";
+
+    private JwtDecoder nimbus;
+    private JwtDecoder cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        SecretKey key = new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        nimbus = NimbusJwtDecoder.withSecretKey(key).macAlgorithm(MacAlgorithm.HS256).build();
+        cached = new CachingJwtDecoder(nimbus, 10_000);
+
+        JwtEncoder encoder = new NimbusJwtEncoder(new ImmutableSecret<>(key));
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .id("7d3c7c3e-1c55-4a4e-9a3e-6b1f0f7a9a10")
+                .issuer("self")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(900))
+                .subject("email@email.com")
+                .claim("userId", 1L)
+                .claim("roles", List.of("USER"))
+                .build();
+        token = encoder.encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+                .getTokenValue();
+    }
+
+    @Benchmark
+    public Jwt uncached() {
+        return nimbus.decode(token);
+    }
+
+    @Benchmark
+    public Jwt cached() {
+        return cached.decode(token);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.security.JwtSigningKeys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jwt.*;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подпись и проверка JWT: HS256 (общий секрет) против ES256 (P-256).
+ * Проверка — без кэша декодера (CachingJwtDecoder), т.е. стоимость первого запроса с токеном.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtSigningBenchmark {
+    static final String SECRET = "iNa0fyrTACIZxkT2fu9kET4FtF1BJbIviNa0fyrTACIZxkT2fu9kET4FtF1BJbIv";
+
+    @Param({"HS256", "ES256"})
+    String algorithm;
+
+    private JwtEncoder encoder;
+    private JwtDecoder decoder;
+    private JwtEncoderParameters parameters;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtSigningKeys keys = "HS256".equals(algorithm)
+                ? JwtSigningKeys.hmac(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"))
+                : JwtSigningKeys.ec(List.of(JwtSigningKeys.generateEcKey()));
+        encoder = keys.encoder();
+        decoder = keys.decoder();
+
+        Instant now = Instant.now();
+        parameters = JwtEncoderParameters.from(JwtClaimsSet.builder()
+                .id("7d3c7c3e-1c55-4a4e-9a3e-6b1f0f7a9a10")
+                .issuer("self")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(900))
+                .subject("email@email.com")
+                .claim("userId", 1L)
+                .claim("roles", List.of("USER"))
+                .build());
+        token = encoder.encode(parameters).getTokenValue();
+    }
+
+    @Benchmark
+    public Jwt sign() {
+        return encoder.encode(parameters);
+    }
+
+    @Benchmark
+    public Jwt verify() {
+        return decoder.decode(token);
+    }
+}
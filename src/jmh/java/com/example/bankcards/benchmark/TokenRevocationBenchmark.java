@@ -0,0 +1,50 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.security.TokenRevocationList;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость проверки отзыва на каждом запросе: список на 100 тыс. отозванных
+ * jti и 10 тыс. отсечек по пользователям, токен не отозван / отозван.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenRevocationBenchmark {
+    private TokenRevocationList list;
+    private String revokedJti;
+    private String liveJti;
+    private Instant issuedAt;
+
+    @Setup
+    public void setUp() {
+        Instant now = Instant.now();
+        list = new TokenRevocationList();
+        for (int i = 0; i < 100_000; i++) {
+            revokedJti = UUID.randomUUID().toString();
+            list.revoke(revokedJti, now.plusSeconds(900));
+        }
+        for (long userId = 0; userId < 10_000; userId++) {
+            list.revokeUserBefore(userId, now.minusSeconds(60));
+        }
+        liveJti = UUID.randomUUID().toString();
+        issuedAt = now;
+    }
+
+    @Benchmark
+    public boolean notRevoked() {
+        return list.isRevoked(liveJti, 42L, issuedAt);
+    }
+
+    @Benchmark
+    public boolean revokedByJti() {
+        return list.isRevoked(revokedJti, 42L, issuedAt);
+    }
+}
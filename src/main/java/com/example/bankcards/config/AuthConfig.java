@@ -1,8 +1,9 @@
 package com.example.bankcards.config;
 
-import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.security.CustomUserDetailsService;
+import com.example.bankcards.service.UserCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -16,16 +17,20 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Configuration
 @RequiredArgsConstructor
 public class AuthConfig {
-    private final UserRepository repository;
+    private final UserCache userCache;
+
+    // стоимость BCrypt (log2 раундов) для новых хешей; существующие хеши хранят свою
+    @Value("${app.security.bcrypt-strength:10}")
+    private int bcryptStrength;
 
     @Bean
     public UserDetailsService userDetailsService(){
-        return new CustomUserDetailsService(repository);
+        return new CustomUserDetailsService(userCache);
     }
 
     @Bean
     public PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
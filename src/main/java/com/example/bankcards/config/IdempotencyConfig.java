@@ -0,0 +1,28 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.filter.IdempotencyFilter;
+import com.example.bankcards.service.IdempotencyStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdempotencyConfig {
+
+    /**
+     * Фильтр подключается только к операциям, которые меняют балансы,
+     * и стоит после цепочки Spring Security (нужен пользователь из JWT)
+     * и после ограничения частоты запросов ({@link RateLimitConfig}).
+     */
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store,
+                                                                       ObjectMapper objectMapper) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(store, objectMapper));
+        registration.addUrlPatterns("/api/v1/cards/transfer", "/api/v1/cards/transfer/batch");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 2);
+        return registration;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.filter.RateLimitFilter;
+import com.example.bankcards.service.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    /**
+     * Фильтр стоит сразу после цепочки Spring Security (ключ — пользователь из JWT)
+     * и до идемпотентности: отклонённый запрос не захватывает Idempotency-Key.
+     * Маршруты фильтр выбирает сам по правилам app.rate-limit.rules.
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitProperties properties,
+                                                                   RateLimiter limiter,
+                                                                   ObjectMapper objectMapper) {
+        FilterRegistrationBean<RateLimitFilter> registration =
+                new FilterRegistrationBean<>(new RateLimitFilter(properties, limiter, objectMapper));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        registration.setEnabled(properties.isEnabled() && !properties.getRules().isEmpty());
+        return registration;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.bankcards.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ограничение частоты запросов по маршрутам.
+ * <p>
+ * Каждое правило — "capacity запросов за period" на клиента (пользователь из JWT
+ * или IP-адрес). Запрос проверяется первым правилом, чей шаблон совпал с путём;
+ * пути без правила не ограничиваются.
+ */
+@ConfigurationProperties(prefix = "app.rate-limit")
+@Validated
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Сколько клиентов (пар правило + клиент) держать в памяти.
+     */
+    @Positive
+    private long maxKeys = 100_000;
+
+    private List<@Valid Rule> rules = new ArrayList<>();
+
+    public static class Rule {
+        @NotBlank
+        private String name;
+
+        /**
+         * Шаблоны путей в синтаксисе PathPattern, например /api/v1/cards/transfer/**.
+         */
+        @NotEmpty
+        private List<@NotBlank String> patterns = new ArrayList<>();
+
+        /**
+         * Размер "пачки": столько запросов подряд допускается без пауз.
+         */
+        @Positive
+        private int capacity;
+
+        /**
+         * За это время восстанавливается весь запас capacity.
+         */
+        @NotNull
+        private Duration period;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<String> getPatterns() {
+            return patterns;
+        }
+
+        public void setPatterns(List<String> patterns) {
+            this.patterns = patterns;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public Duration getPeriod() {
+            return period;
+        }
+
+        public void setPeriod(Duration period) {
+            this.period = period;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaxKeys() {
+        return maxKeys;
+    }
+
+    public void setMaxKeys(long maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    public void setRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+}
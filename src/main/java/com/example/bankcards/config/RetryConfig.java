@@ -0,0 +1,14 @@
+package com.example.bankcards.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.annotation.EnableRetry;
+
+/**
+ * Повтор операций, откатанных БД из-за конкурентного доступа (deadlock,
+ * serialization failure). Advice повтора стоит снаружи транзакционного,
+ * поэтому каждая попытка выполняется в новой транзакции.
+ */
+@Configuration
+@EnableRetry
+public class RetryConfig {
+}
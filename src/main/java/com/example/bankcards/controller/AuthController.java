@@ -1,5 +1,6 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.RefreshTokenDto;
 import com.example.bankcards.dto.UserLoginDto;
 import com.example.bankcards.dto.UserLoginRespDto;
 import com.example.bankcards.dto.UserRegisterDto;
@@ -10,16 +11,21 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @RequestMapping("api/v1/auth")
 @RestController
 @RequiredArgsConstructor
@@ -39,12 +45,54 @@ public class AuthController {
                                     mediaType = "application/json",
                                     schema = @Schema(implementation = UserLoginRespDto.class) )
                     ),
-                    @ApiResponse(responseCode = "400", ref = "Validation")
+                    @ApiResponse(responseCode = "400", ref = "Validation"),
+                    @ApiResponse(responseCode = "503", description = "Too many logins in progress, see Retry-After")
             }
     )
-    public ResponseEntity<UserLoginRespDto> login(@Valid @RequestBody UserLoginDto authRequest){
-        UserLoginRespDto authResponse = service.login(authRequest);
-        return ResponseEntity.ok(authResponse);
+    public CompletableFuture<ResponseEntity<UserLoginRespDto>> login(@Valid @RequestBody UserLoginDto authRequest){
+        return service.loginAsync(authRequest).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/refresh")
+    @Operation(
+            summary = "Новый JWT токен по refresh-токену",
+            description = """
+          Пароль не проверяется. Refresh-токен одноразовый: в ответе приходит новый,
+          а повторное предъявление использованного отзывает все refresh-токены сессии.
+          """,
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Success",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = UserLoginRespDto.class) )
+                    ),
+                    @ApiResponse(responseCode = "400", ref = "Validation"),
+                    @ApiResponse(responseCode = "401", ref = "401")
+            }
+    )
+    public ResponseEntity<UserLoginRespDto> refresh(@Valid @RequestBody RefreshTokenDto dto) {
+        return ResponseEntity.ok(service.refresh(dto));
+    }
+
+    @PostMapping("/logout")
+    @Operation(
+            summary = "Выход: отзыв текущего JWT токена",
+            description = """
+          Токен, с которым пришёл запрос, перестаёт приниматься на всех экземплярах
+          приложения (на остальных — в течение нескольких секунд). Refresh-токены
+          этой сессии отзываются.
+          """,
+            security = @SecurityRequirement(name = "JWT Bearer")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Token revoked"),
+            @ApiResponse(responseCode = "401", ref = "401")
+    })
+    public ResponseEntity<Void> logout(@AuthenticationPrincipal Jwt jwt) {
+        service.logout(jwt);
+        return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/sign-up")
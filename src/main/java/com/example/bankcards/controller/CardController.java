@@ -1,10 +1,20 @@
 package com.example.bankcards.controller;
 
 import com.example.bankcards.dto.*;
+import com.example.bankcards.filter.IdempotencyFilter;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.util.CardExportWriter;
+import com.example.bankcards.util.ExportFormat;
+import com.example.bankcards.util.swagger.CardCursorPageResponse;
 import com.example.bankcards.util.swagger.CardPageResponse;
+import com.example.bankcards.util.swagger.CardSliceResponse;
+import com.example.bankcards.util.swagger.CardTransactionCursorPageResponse;
 import com.example.bankcards.util.swagger.CommonApiResponses;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -18,10 +28,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 @RequestMapping("api/v1/cards")
 @RestController
@@ -31,6 +46,7 @@ import org.springframework.web.bind.annotation.*;
 @CommonApiResponses
 public class CardController {
     private final CardService service;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/admin/generate-card-number")
     @Operation(
@@ -49,6 +65,28 @@ public class CardController {
         return ResponseEntity.ok(service.generate());
     }
 
+    @GetMapping("/admin/generate-card-numbers")
+    @Operation(
+            description = """
+          Для целей тестирования. Генерирует 'count' (от 1 до 1000) разных валидных номеров карт,
+          которые не совпадают с уже выпущенными картами.
+          """,
+            summary = "Пакетная генерация номеров кредитных карт"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Card Numbers",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = String.class))
+                    )
+            ),
+            @ApiResponse(responseCode = "400", ref = "Validation"),
+            @ApiResponse(responseCode = "403", ref = "403")
+    })
+    public ResponseEntity<List<String>> generateBatch(@RequestParam(defaultValue = "10") int count) {
+        return ResponseEntity.ok(service.generate(count));
+    }
+
     @PostMapping("/admin/create")
     @Operation(
             summary = "Регистрация Админом новой Карты для Юзера",
@@ -73,6 +111,44 @@ public class CardController {
     }
 
 
+    @PostMapping("/admin/create/batch")
+    @Operation(
+            summary = "Выпуск Админом пакета карт",
+            description = """
+          Принимает до 1000 карт в формате 'cards/admin/create'. Владельцы и занятые номера
+          проверяются одним запросом на весь пакет, карты вставляются одним INSERT.
+          Дубликат номера (в БД или внутри пакета) или несуществующий Юзер отклоняют только
+          свою строку: результат возвращается по каждой карте.
+          """
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Пакет обработан"),
+            @ApiResponse(responseCode = "400", ref = "Validation")
+    })
+    public ResponseEntity<CardBatchCreateRespDto> createBatch(@Valid @RequestBody CardBatchCreateDto dto) {
+        return ResponseEntity.ok(service.createBatch(dto));
+    }
+
+    @PostMapping("/admin/find-by-number")
+    @Operation(
+            summary = "Поиск Админом карты по её номеру",
+            description = """
+          Поиск выполняется по "слепому индексу" (HMAC номера карты), без расшифровки
+          хранимых номеров. Номер передаётся в теле запроса, чтобы не попадать в логи URL.
+          """
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Карта найдена",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation =
+                                    CardRespDto.class))),
+            @ApiResponse(responseCode = "400", ref = "Validation"),
+            @ApiResponse(responseCode = "404", ref = "NotFound")
+    })
+    public ResponseEntity<CardRespDto> findByNumber(@Valid @RequestBody CardNumberDto dto) {
+        return ResponseEntity.ok(service.findByNumber(dto));
+    }
+
     @GetMapping("/admin/list")
     @Operation(
             summary = "Получение Админом списка всех карт (с фильтрацией и пагинацией)",
@@ -101,6 +177,116 @@ public class CardController {
                 pageable));
     }
 
+    @GetMapping("/admin/list/cursor")
+    @Operation(
+            summary = "Получение Админом списка всех карт с keyset-пагинацией (курсором)",
+            description = """
+          Не выполняет подсчёт общего количества карт, поэтому стоимость запроса не зависит
+          от "глубины" страницы. Для следующей страницы передайте 'cursor' из предыдущего ответа
+          (сортировка берётся из курсора). Номер страницы ('page') игнорируется.
+          Сортировка возможна по одному из полей: id, cardHolder, expiryDate, balance.
+          """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Page of cards",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CardCursorPageResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", ref = "Validation")
+    })
+    public ResponseEntity<CursorPageDto<CardRespDto>> getCardsListByCursor(
+            @Valid
+            @ModelAttribute
+            CardsListDto dto,
+            @RequestParam(required = false)
+            String cursor,
+            @ParameterObject
+            @PageableDefault(size = 10, sort = "id", direction = Sort.Direction.ASC)
+            Pageable pageable
+    ) {
+        return ResponseEntity.ok(service.getCardsListByCursor(dto, cursor,
+                pageable.getSort(), pageable.getPageSize()));
+    }
+
+    @GetMapping("/admin/list/slice")
+    @Operation(
+            summary = "Получение Админом списка всех карт без подсчёта общего количества",
+            description = """
+          Те же фильтры и пагинация, что у 'cards/admin/list', но без COUNT-запроса:
+          вместо totalElements/totalPages возвращается признак 'hasNext'.
+          """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Slice of cards",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CardSliceResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", ref = "Validation")
+    })
+    public ResponseEntity<SliceDto<CardRespDto>> getCardsListSlice(
+            @Valid
+            @ModelAttribute
+            CardsListDto dto,
+            @ParameterObject
+            @PageableDefault(page = 0, size = 10, sort = "id", direction = Sort.Direction.ASC)
+            Pageable pageable
+    ) {
+        return ResponseEntity.ok(service.getCardsListSlice(dto, pageable));
+    }
+
+    @GetMapping("/admin/export")
+    @Operation(
+            summary = "Выгрузка Админом всех карт (с фильтрацией) одним потоком",
+            description = """
+          Фильтры те же, что у 'cards/admin/list'. Строки читаются из БД курсором и сразу
+          пишутся в ответ, поэтому объём выгрузки не ограничен памятью сервера.
+          Формат: NDJSON (по умолчанию, один CardRespDto на строку) или CSV с заголовком.
+          Номер карты маскируется. Строки упорядочены по id.
+          """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Stream of cards",
+                    content = {
+                            @Content(mediaType = "application/x-ndjson",
+                                    schema = @Schema(implementation = CardRespDto.class)),
+                            @Content(mediaType = "text/csv",
+                                    schema = @Schema(type = "string"))
+                    }
+            ),
+            @ApiResponse(responseCode = "400", ref = "Validation")
+    })
+    public ResponseEntity<StreamingResponseBody> export(
+            @Valid
+            @ModelAttribute
+            CardsListDto dto,
+            @RequestParam(defaultValue = "NDJSON")
+            ExportFormat format
+    ) {
+        StreamingResponseBody body = out -> {
+            CardExportWriter writer = new CardExportWriter(format, out, objectMapper);
+            service.exportCards(dto, writer::write);
+            writer.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.mediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("cards." + format.extension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     @GetMapping("/my-cards")
     @Operation(
             summary = "Получение Юзером списка принадлежащих ему карт (с фильтрацией и пагинацией)",
@@ -128,6 +314,66 @@ public class CardController {
         return ResponseEntity.ok(fromDb);
     }
 
+    @GetMapping("/my-cards/cursor")
+    @Operation(
+            summary = "Получение Юзером списка своих карт с keyset-пагинацией (курсором)",
+            description = """
+          Не выполняет подсчёт общего количества карт. Для следующей страницы передайте
+          'cursor' из предыдущего ответа. Номер страницы ('page') игнорируется.
+          Сортировка возможна по одному из полей: id, cardHolder, expiryDate, balance.
+          """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Page of cards",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CardCursorPageResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", ref = "Validation")
+    })
+    public ResponseEntity<CursorPageDto<CardRespDto>> getAllForMeByCursor(
+            @Valid
+            CardHolderListDto dto,
+            @RequestParam(required = false)
+            String cursor,
+            @ParameterObject
+            @PageableDefault(size = 10, sort = "id", direction = Sort.Direction.ASC)
+            Pageable pageable) {
+        return ResponseEntity.ok(service.getUserCardsByCursor(dto, cursor,
+                pageable.getSort(), pageable.getPageSize()));
+    }
+
+    @GetMapping("/my-cards/slice")
+    @Operation(
+            summary = "Получение Юзером списка своих карт без подсчёта общего количества",
+            description = """
+          Те же фильтры и пагинация, что у 'cards/my-cards', но без COUNT-запроса:
+          вместо totalElements/totalPages возвращается признак 'hasNext'.
+          """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Slice of cards",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CardSliceResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", ref = "Validation")
+    })
+    public ResponseEntity<SliceDto<CardRespDto>> getAllForMeSlice(
+            @Valid
+            CardHolderListDto dto,
+            @ParameterObject
+            @PageableDefault(page = 0, size = 10, sort = "id", direction = Sort.Direction.ASC)
+            Pageable pageable) {
+        return ResponseEntity.ok(service.getUserCardsSlice(dto, pageable));
+    }
+
     @PatchMapping("/block/{cardId}")
     @Operation(
             summary = "Юзер помечает карту для блокировки Админом"
@@ -163,6 +409,13 @@ public class CardController {
             ),
             @ApiResponse(responseCode = "400", ref = "Validation"),
     })
+    @Parameter(
+            in = ParameterIn.HEADER,
+            name = IdempotencyFilter.HEADER,
+            description = "Необязательный ключ идемпотентности: повтор запроса с тем же ключом " +
+                    "возвращает сохранённый успешный ответ, не выполняя перевод повторно",
+            schema = @Schema(type = "string", maxLength = 255)
+    )
     public ResponseEntity<String> transfer(
             @Valid @RequestBody CardTransferDto dto
     ) {
@@ -170,6 +423,30 @@ public class CardController {
     }
 
 
+    @PostMapping("/transfer/batch")
+    @Operation(
+            summary = "Пакет переводов Юзера между своими картами",
+            description = "Выполняет до 1000 переводов по порядку за одно обращение к БД. " +
+                    "Отклонённый перевод (нет средств, карта чужая или не активна) " +
+                    "не отменяет остальные: результат возвращается по каждому переводу"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Пакет обработан"),
+            @ApiResponse(responseCode = "400", ref = "Validation"),
+    })
+    @Parameter(
+            in = ParameterIn.HEADER,
+            name = IdempotencyFilter.HEADER,
+            description = "Необязательный ключ идемпотентности: повтор запроса с тем же ключом " +
+                    "возвращает сохранённый успешный ответ, не выполняя перевод повторно",
+            schema = @Schema(type = "string", maxLength = 255)
+    )
+    public ResponseEntity<CardBatchTransferRespDto> transferBatch(
+            @Valid @RequestBody CardBatchTransferDto dto
+    ) {
+        return ResponseEntity.ok(service.transferBatch(dto));
+    }
+
     @DeleteMapping("/admin/delete/{cardId}")
     @Operation(
             summary = "Админ может удалить BLOCKED или EXPIRED карту",
@@ -210,6 +487,30 @@ public class CardController {
         return ResponseEntity.ok(service.changeStatus(cardId, dto));
     }
 
+    @PatchMapping("/admin/block-requests/approve")
+    @Operation(
+            summary = "Админ одобряет заявки на блокировку карт пакетом",
+            description = """
+          Переводит в BLOCKED карты, помеченные Юзерами для блокировки ('cards/block/{cardId}'),
+          и снимает пометку. Без тела запроса (или с пустыми полями) одобряются все заявки;
+          'userId' и 'cardIds' сужают выборку. Карты, статус которых не допускает
+          перехода в BLOCKED (например, EXPIRED), не изменяются.
+          Возвращает количество и id заблокированных карт.
+          """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Операция успешно завершена",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CardBlockApproveRespDto.class))),
+            @ApiResponse(responseCode = "400", ref = "Validation")
+    })
+    public ResponseEntity<CardBlockApproveRespDto> approveBlockRequests(
+            @Valid @RequestBody(required = false) CardBlockApproveDto dto
+    ) {
+        return ResponseEntity.ok(service.approveBlockRequests(
+                dto != null ? dto : new CardBlockApproveDto(null, null)));
+    }
+
     @GetMapping("/my-balance")
     @Operation(
             summary = "Получить сумму балансов всех карт текущего пользователя",
@@ -229,4 +530,35 @@ public class CardController {
     public ResponseEntity<String> getTotalBalance() {
         return ResponseEntity.ok(service.getTotalBalanceByUser());
     }
+
+    @GetMapping("/{cardId}/transactions")
+    @Operation(
+            summary = "Журнал операций по карте с keyset-пагинацией (курсором)",
+            description = """
+          Операции возвращаются от новых к старым. Для следующей страницы передайте 'cursor'
+          из предыдущего ответа. Доступно владельцу карты и Админу.
+          """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Page of card transactions",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CardTransactionCursorPageResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "403", ref = "403"),
+            @ApiResponse(responseCode = "404", ref = "NotFound")
+    })
+    public ResponseEntity<CursorPageDto<CardTransactionDto>> getCardTransactions(
+            @PathVariable Long cardId,
+            @RequestParam(required = false)
+            String cursor,
+            @ParameterObject
+            @PageableDefault(size = 20)
+            Pageable pageable
+    ) {
+        return ResponseEntity.ok(service.getCardTransactions(cardId, cursor, pageable.getPageSize()));
+    }
 }
@@ -0,0 +1,38 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.security.JwtSigningKeys;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Authentication")
+public class JwksController {
+    // шлюз и реплики кэшируют набор ключей; новый ключ публикуется заранее, до начала подписи им
+    private static final Duration MAX_AGE = Duration.ofMinutes(5);
+
+    private final JwtSigningKeys signingKeys;
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+            summary = "Публичные ключи проверки JWT (JWK Set)",
+            description = """
+          Для проверки токенов без обращения к приложению (ES256, ключ выбирается по kid).
+          В режиме HS256 набор пуст.
+          """
+    )
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(MAX_AGE).cachePublic())
+                .body(signingKeys.publicJwkSet().toJSONObject());
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.SliceDto;
 import com.example.bankcards.dto.UserFilterDto;
 import com.example.bankcards.dto.UserRespDto;
 import com.example.bankcards.dto.UserUpdateDto;
@@ -7,6 +8,7 @@ import com.example.bankcards.entity.User;
 import com.example.bankcards.service.UserService;
 import com.example.bankcards.util.swagger.CommonApiResponses;
 import com.example.bankcards.util.swagger.UserPageResponse;
+import com.example.bankcards.util.swagger.UserSliceResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -91,6 +93,35 @@ public class UserController {
         return ResponseEntity.ok(usersPage);
     }
 
+    @GetMapping("/admin/list/slice")
+    @Operation(
+            summary = "Получение Админом списка Юзеров без подсчёта общего количества",
+            description = """
+          Те же фильтры и пагинация, что у 'users/admin/list', но без COUNT-запроса:
+          вместо totalElements/totalPages возвращается признак 'hasNext'.
+          """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Slice of users",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = UserSliceResponse.class)
+                    )
+            ),
+    })
+    public ResponseEntity<SliceDto<UserRespDto>> getUsersSlice(
+            @Valid
+            @ModelAttribute
+            UserFilterDto dto,
+            @ParameterObject
+            @PageableDefault(page = 0, size = 10, sort = "id", direction = Sort.Direction.ASC)
+            Pageable pageable
+    ) {
+        return ResponseEntity.ok(service.findSlice(dto, pageable));
+    }
+
     @GetMapping("/admin/{userId}")
     @Operation(
             summary = "Получение Админом данных Юзера по его ID"
@@ -134,4 +165,18 @@ public class UserController {
         User user = service.update(userId, dto);
         return ResponseEntity.ok(UserRespDto.toDto(user));
     }
+
+    @PostMapping("/admin/revoke-tokens/{userId}")
+    @Operation(
+            summary = "Админ отзывает все токены Юзера",
+            description = "Все JWT токены Юзера, выданные до этого момента, перестают приниматься (401)."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Tokens revoked"),
+            @ApiResponse(responseCode = "404", ref = "NotFound"),
+    })
+    public ResponseEntity<Void> revokeTokens(@PathVariable Long userId) {
+        service.revokeTokens(userId);
+        return ResponseEntity.noContent().build();
+    }
 }
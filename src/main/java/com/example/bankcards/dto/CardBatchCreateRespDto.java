@@ -0,0 +1,11 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+
+public record CardBatchCreateRespDto(
+        int total,
+        int created,
+        int rejected,
+        List<CardCreateResultDto> results
+) {
+}
@@ -0,0 +1,14 @@
+package com.example.bankcards.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record CardBatchTransferDto(
+        @NotEmpty
+        @Size(max = 1000)
+        List<@Valid CardTransferDto> transfers
+) {
+}
@@ -0,0 +1,11 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+
+public record CardBatchTransferRespDto(
+        int total,
+        int succeeded,
+        int rejected,
+        List<CardTransferResultDto> results
+) {
+}
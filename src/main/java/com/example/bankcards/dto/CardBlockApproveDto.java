@@ -0,0 +1,25 @@
+package com.example.bankcards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Фильтр заявок на блокировку. Незаданные поля не ограничивают выборку:
+ * пустой запрос одобряет все заявки.
+ *
+ * @param userId  только карты этого Юзера
+ * @param cardIds только эти карты
+ */
+public record CardBlockApproveDto(
+        @Min(1)
+        @Schema(example = "51")
+        Long userId,
+
+        @Size(max = 1000)
+        List<@NotNull Long> cardIds
+) {
+}
@@ -0,0 +1,13 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+
+/**
+ * @param blocked количество заблокированных карт
+ * @param cardIds id заблокированных карт
+ */
+public record CardBlockApproveRespDto(
+        int blocked,
+        List<Long> cardIds
+) {
+}
@@ -0,0 +1,24 @@
+package com.example.bankcards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Результат выпуска одной карты из пакета.
+ *
+ * @param index      порядковый номер карты в запросе (с 0)
+ * @param cardId     id созданной карты (null, если карта не создана)
+ * @param cardNumber маскированный номер карты
+ */
+public record CardCreateResultDto(
+        @Schema(example = "0") int index,
+        @Schema(example = "101") Long cardId,
+        @Schema(example = "**** **** **** 4829") String cardNumber,
+        @Schema(example = "51") Long userId,
+        Status status
+) {
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        USER_NOT_FOUND
+    }
+}
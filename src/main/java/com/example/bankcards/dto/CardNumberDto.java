@@ -0,0 +1,12 @@
+package com.example.bankcards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.validator.constraints.CreditCardNumber;
+
+public record CardNumberDto(
+        @CreditCardNumber
+        @NotNull
+        @Schema(example = "4000006806224829")
+        String cardNumber) {
+}
@@ -1,6 +1,7 @@
 package com.example.bankcards.dto;
 
 import com.example.bankcards.entity.CreditCard;
+import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.util.CardUtil;
 import com.example.bankcards.util.CryptoUtils;
 import com.example.bankcards.util.Mask;
@@ -10,6 +11,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
 
 @Getter
 @Setter
@@ -27,17 +30,23 @@ public class CardRespDto {
     private Long userId;
 
     public static CardRespDto toDto(CreditCard card, CryptoUtils cryptoUtils) {
-        CardRespDto dto = new CardRespDto();
-        dto.id = card.getId();
-        dto.cardHolder = card.getCardHolder();
-        dto.cardNumber = cryptoUtils.decrypt(card.getCardNumber());
-        dto.expiryDate = CardUtil.formatExpiryDate(card.getExpiryDate());
-        dto.status = card.getStatus();
-        dto.toBlock = card.getToBlock();
-        dto.balance = CardUtil.fromCentsToDecimal(card.getBalance());
-        dto.userId = card.getUserId();
+        return toDto(card.getId(), card.getCardHolder(), card.getCardNumber(), card.getExpiryDate(),
+                card.getStatus(), card.getToBlock(), card.getBalance(), card.getUserId(), cryptoUtils);
+    }
+
+    // CreditCard не реализует CardView: иначе Spring Data перестанет считать
+    // q.as(CardView.class) проекцией и будет выбирать сущность целиком
+    public static CardRespDto toDto(CardRepository.CardView card, CryptoUtils cryptoUtils) {
+        return toDto(card.getId(), card.getCardHolder(), card.getCardNumber(), card.getExpiryDate(),
+                card.getStatus(), card.getToBlock(), card.getBalance(), card.getUserId(), cryptoUtils);
+    }
 
-        return dto;
+    private static CardRespDto toDto(Long id, String cardHolder, String encryptedNumber, LocalDate expiryDate,
+                                     CreditCard.CardStatus status, Boolean toBlock, BigInteger balanceCents,
+                                     Long userId, CryptoUtils cryptoUtils) {
+        return new CardRespDto(id, cardHolder, cryptoUtils.decrypt(encryptedNumber),
+                CardUtil.formatExpiryDate(expiryDate), status, toBlock,
+                CardUtil.fromCentsToDecimal(balanceCents), userId);
     }
 
     @Override
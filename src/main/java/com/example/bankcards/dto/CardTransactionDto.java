@@ -0,0 +1,28 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.CardTransaction;
+import com.example.bankcards.util.CardUtil;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record CardTransactionDto(
+        Long id,
+        Long cardId,
+        Long counterpartCardId,
+        CardTransaction.Type type,
+        BigDecimal amount,
+        BigDecimal balanceAfter,
+        Instant createdAt
+) {
+    public static CardTransactionDto toDto(CardTransaction transaction) {
+        return new CardTransactionDto(
+                transaction.getId(),
+                transaction.getCardId(),
+                transaction.getCounterpartCardId(),
+                transaction.getType(),
+                CardUtil.fromCentsToDecimal(transaction.getAmount()),
+                CardUtil.fromCentsToDecimal(transaction.getBalanceAfter()),
+                transaction.getCreatedAt());
+    }
+}
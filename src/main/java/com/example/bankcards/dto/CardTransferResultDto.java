@@ -0,0 +1,21 @@
+package com.example.bankcards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Результат одного перевода из пакета.
+ *
+ * @param index порядковый номер перевода в запросе (с 0)
+ */
+public record CardTransferResultDto(
+        @Schema(example = "0") int index,
+        @Schema(example = "2") Long fromId,
+        @Schema(example = "1") Long toId,
+        @Schema(example = "1234.56") String amount,
+        Status status
+) {
+    public enum Status {
+        SUCCESS,
+        REJECTED
+    }
+}
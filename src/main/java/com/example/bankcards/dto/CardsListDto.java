@@ -1,6 +1,7 @@
 package com.example.bankcards.dto;
 
 import com.example.bankcards.entity.CreditCard;
+import com.example.bankcards.util.SearchMode;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
 import lombok.Getter;
@@ -15,6 +16,9 @@ public class CardsListDto {
     @Pattern(regexp="[A-Za-z]+", message = "Cardholder string must contain only Latin letters")
     private String cardHolder;
 
+    // CONTAINS (по умолчанию) или PREFIX
+    private SearchMode searchMode;
+
     private CreditCard.CardStatus status;
 
     private Boolean toBlock;
@@ -0,0 +1,6 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+
+public record CursorPageDto<T>(List<T> content, int size, boolean hasNext, String nextCursor) {
+}
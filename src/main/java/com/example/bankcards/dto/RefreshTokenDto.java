@@ -0,0 +1,13 @@
+package com.example.bankcards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+@Schema(description = "Обновление JWT токена по refresh-токену")
+public record RefreshTokenDto(
+        @NotBlank
+        @Size(max = 100)
+        @Schema(description = "refresh-токен из ответа login/refresh")
+        String refreshToken
+) {}
@@ -0,0 +1,19 @@
+package com.example.bankcards.dto;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Страница без общего количества: признак следующей страницы определяется
+ * выборкой size + 1 строк, отдельный COUNT(*) не выполняется.
+ */
+public record SliceDto<T>(List<T> content, Meta page) {
+
+    public record Meta(int size, int number, boolean hasNext) {}
+
+    public static <T> SliceDto<T> of(Slice<T> slice) {
+        return new SliceDto<>(slice.getContent(),
+                new Meta(slice.getSize(), slice.getNumber(), slice.hasNext()));
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.bankcards.dto;
 
 import com.example.bankcards.entity.User;
+import com.example.bankcards.util.SearchMode;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Pattern;
 
@@ -14,5 +15,8 @@ public record UserFilterDto(
         @Email
         String email,
 
-        User.Role role) {
+        User.Role role,
+
+        // CONTAINS (по умолчанию) или PREFIX для firstName, lastName, email
+        SearchMode searchMode) {
 }
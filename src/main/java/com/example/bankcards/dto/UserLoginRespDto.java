@@ -1,3 +1,7 @@
 package com.example.bankcards.dto;
 
-public record UserLoginRespDto(Long userId, String token) {}
+/**
+ * @param token        JWT access-токен
+ * @param refreshToken одноразовый токен для /auth/refresh: каждый вызов возвращает новый
+ */
+public record UserLoginRespDto(Long userId, String token, String refreshToken) {}
@@ -0,0 +1,56 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigInteger;
+import java.time.Instant;
+
+/**
+ * Запись журнала операций по карте (только добавление).
+ * Строки пишутся нативными INSERT в одной транзакции со списанием/зачислением,
+ * см. {@link com.example.bankcards.repository.CardTransactionRepository}.
+ * Таблица партиционирована по месяцам created_at, PK в БД — (id, created_at).
+ */
+@Entity
+@Immutable
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "card_transaction")
+public class CardTransaction {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long cardId;
+
+    private Long counterpartCardId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, columnDefinition = "card_transaction_type")
+    @JdbcTypeCode(SqlTypes.NAMED_ENUM)
+    private Type type;
+
+    // сумма операции в копейках, всегда положительная
+    @Column(nullable = false)
+    private BigInteger amount;
+
+    @Column(nullable = false)
+    private BigInteger balanceAfter;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public enum Type {
+        DEBIT,
+        CREDIT
+    }
+}
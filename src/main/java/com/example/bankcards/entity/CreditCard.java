@@ -28,6 +28,9 @@ public class CreditCard {
     @Column(nullable = false, unique = true)
     private String cardNumber;
 
+    @Column(nullable = false, unique = true, length = 64)
+    private String cardNumberHash;
+
     @Column(nullable = false)
     private LocalDate expiryDate;
 
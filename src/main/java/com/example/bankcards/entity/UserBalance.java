@@ -0,0 +1,27 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigInteger;
+
+/**
+ * Сумма балансов всех карт пользователя (в копейках).
+ * Поддерживается при создании и удалении карт; переводы между своими
+ * картами сумму не меняют. Сверяется с credit_card задачей UserBalanceDriftCheck.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBalance {
+    @Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private BigInteger total;
+}
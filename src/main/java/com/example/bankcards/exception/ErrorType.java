@@ -11,6 +11,8 @@ public enum ErrorType {
     JWT_INVALID,
     CONFLICT,
     NOT_FOUND,
+    TOO_MANY_REQUESTS,
+    SERVICE_UNAVAILABLE,
     INTERNAL_ERROR
 }
 
@@ -6,6 +6,8 @@ import io.jsonwebtoken.security.SignatureException;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
@@ -62,6 +64,60 @@ public class ExceptionControllerAdvice {
         return ResponseEntity.status(pd.getStatus()).body(pd);
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidRequest(
+            InvalidRequestException ex,
+            HttpServletRequest request
+    ) {
+        ProblemDetail pd = ErrorResponseFactory.create(
+                ErrorType.BAD_REQUEST,
+                HttpStatus.BAD_REQUEST,
+                ex.getMessage(),
+                request
+        );
+
+        return ResponseEntity.status(pd.getStatus()).body(pd);
+    }
+
+    /**
+     * Транзакция откатана из-за конкурентного доступа и повторы исчерпаны.
+     * Детали от драйвера БД клиенту не отдаём.
+     */
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<ProblemDetail> handleConcurrencyFailure(
+            ConcurrencyFailureException ex,
+            HttpServletRequest request
+    ) {
+        ProblemDetail pd = ErrorResponseFactory.create(
+                ErrorType.CONFLICT,
+                HttpStatus.CONFLICT,
+                "Concurrent update, please retry",
+                request
+        );
+
+        return ResponseEntity.status(pd.getStatus()).body(pd);
+    }
+
+    /**
+     * Перегрузка (например, очередь логинов заполнена): 503 и Retry-After в секундах.
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ProblemDetail> handleServiceUnavailable(
+            ServiceUnavailableException ex,
+            HttpServletRequest request
+    ) {
+        ProblemDetail pd = ErrorResponseFactory.create(
+                ErrorType.SERVICE_UNAVAILABLE,
+                HttpStatus.SERVICE_UNAVAILABLE,
+                ex.getMessage(),
+                request
+        );
+
+        return ResponseEntity.status(pd.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(pd);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ProblemDetail> handleSecurityException(
             Exception ex,
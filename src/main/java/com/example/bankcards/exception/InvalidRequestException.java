@@ -0,0 +1,14 @@
+package com.example.bankcards.exception;
+
+/**
+ * Некорректные параметры запроса (курсор, сортировка, размер пачки) — 400 Bad Request.
+ */
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.bankcards.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Сервис перегружен: запрос не принят, клиенту стоит повторить через {@link #retryAfter}.
+ */
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.bankcards.filter;
+
+import com.example.bankcards.exception.ErrorResponseFactory;
+import com.example.bankcards.exception.ErrorType;
+import com.example.bankcards.service.IdempotencyStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Идемпотентность POST-запросов с заголовком Idempotency-Key.
+ * <p>
+ * Первый запрос с ключом выполняется, его успешный (2xx) ответ сохраняется
+ * в {@link IdempotencyStore}. Повтор с тем же ключом и телом получает
+ * сохранённый ответ (с заголовком Idempotent-Replayed) без вызова контроллера.
+ * Неуспешный ответ не сохраняется — ключ освобождается для повтора.
+ * Ключ принадлежит пользователю из JWT, поэтому фильтр стоит после Spring Security.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        Long userId = currentUserId();
+        if (userId == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String key = request.getHeader(HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            writeProblem(request, response, ErrorType.BAD_REQUEST, HttpStatus.BAD_REQUEST,
+                    HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters long");
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String requestHash = requestHash(cachedRequest);
+
+        Optional<IdempotencyStore.StoredResponse> stored = store.find(userId, key);
+        if (stored.isEmpty()) {
+            if (store.claim(userId, key, requestHash)) {
+                execute(userId, key, requestHash, cachedRequest, response, chain);
+                return;
+            }
+            // ключ захвачен параллельным запросом
+            stored = store.find(userId, key);
+        }
+
+        replay(stored.orElse(null), requestHash, request, response);
+    }
+
+    private void execute(Long userId, String key, String requestHash, HttpServletRequest request,
+                         HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            boolean executed = false;
+            try {
+                chain.doFilter(request, wrapper);
+                executed = HttpStatus.valueOf(wrapper.getStatus()).is2xxSuccessful();
+            } finally {
+                // ключ освобождается, только если сам запрос не выполнен
+                if (!executed) {
+                    store.release(userId, key);
+                }
+            }
+            if (executed) {
+                complete(userId, key, requestHash, wrapper);
+            }
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Запрос уже выполнен (перевод закоммичен), поэтому ошибка сохранения ответа
+     * не освобождает ключ: иначе повтор выполнил бы его ещё раз. Захват остаётся
+     * "в процессе" до истечения lease, клиент получает настоящий ответ.
+     */
+    private void complete(Long userId, String key, String requestHash, ContentCachingResponseWrapper wrapper) {
+        try {
+            store.complete(userId, key, new IdempotencyStore.StoredResponse(
+                    requestHash, wrapper.getStatus(), wrapper.getContentType(),
+                    wrapper.getContentAsByteArray()));
+        } catch (RuntimeException e) {
+            log.error("Failed to store response for {} {}, keeping the key claimed", HEADER, key, e);
+        }
+    }
+
+    private void replay(IdempotencyStore.StoredResponse stored, String requestHash,
+                        HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (stored == null || stored.inProgress()) {
+            writeProblem(request, response, ErrorType.CONFLICT, HttpStatus.CONFLICT,
+                    "A request with this " + HEADER + " is in progress");
+            return;
+        }
+        if (!stored.requestHash().equals(requestHash)) {
+            writeProblem(request, response, ErrorType.BAD_REQUEST, HttpStatus.UNPROCESSABLE_ENTITY,
+                    HEADER + " has already been used with a different request");
+            return;
+        }
+
+        log.debug("Replaying stored response for {} {}", HEADER, request.getHeader(HEADER));
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void writeProblem(HttpServletRequest request, HttpServletResponse response,
+                              ErrorType type, HttpStatus status, String detail) throws IOException {
+        ProblemDetail pd = ErrorResponseFactory.create(type, status, detail, request);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), pd);
+    }
+
+    private static Long currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth instanceof JwtAuthenticationToken jwtAuth) {
+            return jwtAuth.getToken().getClaim("userId");
+        }
+        return null;
+    }
+
+    // Ключ привязан к конкретному запросу: тот же ключ с другим телом — ошибка клиента
+    private static String requestHash(CachedBodyRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(request.body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Тело запроса читается один раз (для хэша) и отдаётся дальше по цепочке.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // тело уже в памяти: всё доступно сразу, и чтение сразу завершено
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException ex) {
+                        listener.onError(ex);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.bankcards.filter;
+
+import com.example.bankcards.config.RateLimitProperties;
+import com.example.bankcards.exception.ErrorResponseFactory;
+import com.example.bankcards.exception.ErrorType;
+import com.example.bankcards.service.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Ограничение частоты запросов: 429 Too Many Requests с заголовком Retry-After.
+ * <p>
+ * Клиент — пользователь из JWT (claim userId), а для анонимных запросов (логин,
+ * регистрация) — IP-адрес. За прокси адрес берётся из X-Forwarded-For только при
+ * включённом server.forward-headers-strategy. Фильтр стоит после Spring Security
+ * (нужен пользователь), но до {@link IdempotencyFilter} и контроллеров.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final RateLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final List<Route> routes;
+
+    private record Route(RateLimitProperties.Rule rule, List<PathPattern> patterns) {
+        boolean matches(PathContainer path) {
+            return patterns.stream().anyMatch(pattern -> pattern.matches(path));
+        }
+    }
+
+    public RateLimitFilter(RateLimitProperties properties, RateLimiter limiter, ObjectMapper objectMapper) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        this.routes = properties.getRules().stream()
+                .map(rule -> new Route(rule, rule.getPatterns().stream()
+                        .map(PathPatternParser.defaultInstance::parse)
+                        .toList()))
+                .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        PathContainer path = PathContainer.parsePath(
+                request.getRequestURI().substring(request.getContextPath().length()));
+        Optional<Route> route = routes.stream().filter(r -> r.matches(path)).findFirst();
+        if (route.isEmpty()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String client = clientKey(request);
+        Optional<Duration> retryAfter = limiter.tryAcquire(route.get().rule(), client);
+        if (retryAfter.isEmpty()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        log.debug("Rate limit '{}' exceeded by {}", route.get().rule().getName(), client);
+        ProblemDetail pd = ErrorResponseFactory.create(ErrorType.TOO_MANY_REQUESTS, HttpStatus.TOO_MANY_REQUESTS,
+                "Too many requests, please retry later", request);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        // Retry-After — целые секунды, округляем вверх
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, retryAfter.get().plusSeconds(1).minusNanos(1).toSeconds())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), pd);
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth instanceof JwtAuthenticationToken jwtAuth) {
+            Object userId = jwtAuth.getToken().getClaim("userId");
+            if (userId != null) {
+                return "user:" + userId;
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -6,9 +6,13 @@ import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface CardRepository extends JpaRepository<CreditCard, Long>, JpaSpecificationExecutor<CreditCard> {
+public interface CardRepository extends JpaRepository<CreditCard, Long>, JpaSpecificationExecutor<CreditCard>,
+        CardRepositoryCustom {
 
     // можно использовать вместо SELECT FOR UPDATE
     @Lock(LockModeType.PESSIMISTIC_WRITE)
@@ -18,9 +22,59 @@ public interface CardRepository extends JpaRepository<CreditCard, Long>, JpaSpec
     @Query(value = "SELECT * FROM credit_card WHERE id = :id FOR UPDATE", nativeQuery = true)
     Optional<CreditCard> findByIdForUpdate(@Param("id") Long id);
 
+    /**
+     * Блокирует строки карт в порядке возрастания id. Все операции, которые
+     * меняют несколько карт, берут блокировки в одном порядке — встречные
+     * переводы по одной паре карт ждут друг друга, а не взаимоблокируются.
+     *
+     * @return id заблокированных карт
+     */
+    @Query(value = "SELECT id FROM credit_card WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockInIdOrder(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Поиск по "слепому индексу" номера карты (uc_creditcard_cardnumberhash).
+     */
+    Optional<CreditCard> findByCardNumberHash(String cardNumberHash);
+
+    boolean existsByCardNumberHash(String cardNumberHash);
+
+    /**
+     * Какие из "слепых индексов" уже заняты (проверка пакета карт одним запросом).
+     */
+    @Query("SELECT c.cardNumberHash FROM CreditCard c WHERE c.cardNumberHash IN :hashes")
+    List<String> findExistingHashes(@Param("hashes") Collection<String> hashes);
+
+    /**
+     * Карты, созданные до появления card_number_hash (для заполнения индекса).
+     */
+    List<CreditCard> findTop500ByCardNumberHashIsNullOrderById();
+
+    /**
+     * Переводит в EXPIRED не более limit карт со сроком действия до сегодняшнего дня.
+     * "Сегодня" — CURRENT_DATE базы, как в withdraw/deposit: перевод и очистка
+     * не расходятся в дате, даже если часовые пояса JVM и БД различаются.
+     * Строки, заблокированные текущими переводами, пропускаются (SKIP LOCKED)
+     * и будут обработаны следующим запуском.
+     *
+     * @return количество обновлённых карт
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = """
+        UPDATE credit_card
+           SET status = 'EXPIRED'
+         WHERE id IN (SELECT id FROM credit_card
+                       WHERE status <> 'EXPIRED'
+                         AND expiry_date < CURRENT_DATE
+                       ORDER BY expiry_date, id
+                       LIMIT :limit
+                         FOR UPDATE SKIP LOCKED)
+        """, nativeQuery = true)
+    int expirePastDue(@Param("limit") int limit);
+
     /**
      * Атомарное списание средств.
-     * Деньги спишутся ТОЛЬКО если balance >= amount.
+     * Деньги спишутся ТОЛЬКО если balance >= amount и срок действия карты не истёк.
      *
      * @return количество обновлённых строк (0 или 1)
      */
@@ -33,6 +87,7 @@ public interface CardRepository extends JpaRepository<CreditCard, Long>, JpaSpec
             AND c.balance >= :amount
             AND c.status = :status
             AND c.toBlock = :toBlock
+            AND c.expiryDate >= CURRENT_DATE
         """)
     int withdraw(
             @Param("cardId") Long cardId,
@@ -43,7 +98,7 @@ public interface CardRepository extends JpaRepository<CreditCard, Long>, JpaSpec
     );
 
     /**
-     * Атомарное зачисление средств.
+     * Атомарное зачисление средств (только на карту с неистёкшим сроком действия).
      */
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query("""
@@ -53,6 +108,7 @@ public interface CardRepository extends JpaRepository<CreditCard, Long>, JpaSpec
             AND c.userId = :userId
             AND c.status = :status
             AND c.toBlock = :toBlock
+            AND c.expiryDate >= CURRENT_DATE
     """)
     int deposit(
             @Param("cardId") Long cardId,
@@ -68,4 +124,20 @@ public interface CardRepository extends JpaRepository<CreditCard, Long>, JpaSpec
         where c.userId = :userId
     """)
     BigInteger sumBalanceByUserId(@Param("userId") Long userId);
+
+    /**
+     * Проекция карты для списков: только колонки, нужные CardRespDto.
+     * Через findBy(spec, q -> q.as(CardView.class)...) выборка идёт
+     * tuple-запросом по этим колонкам, без загрузки сущностей в контекст.
+     */
+    interface CardView {
+        Long getId();
+        String getCardHolder();
+        String getCardNumber();
+        LocalDate getExpiryDate();
+        CreditCard.CardStatus getStatus();
+        Boolean getToBlock();
+        BigInteger getBalance();
+        Long getUserId();
+    }
 }
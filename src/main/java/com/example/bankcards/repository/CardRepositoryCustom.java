@@ -0,0 +1,64 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CreditCard;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Операции над картами, которые выполняются в обход стандартных методов
+ * Spring Data: JDBC batch и потоковое чтение.
+ */
+public interface CardRepositoryCustom {
+
+    /**
+     * Перевод между картами одного пользователя в пределах пакета.
+     *
+     * @param amount сумма в копейках
+     */
+    record Transfer(Long fromId, Long toId, BigInteger amount) {}
+
+    /**
+     * Выполняет переводы одним JDBC batch, в порядке следования.
+     * Каждый перевод — один атомарный оператор: списание происходит только
+     * если карта зачисления существует, принадлежит пользователю и активна,
+     * зачисление — только если списание прошло; выполненный перевод
+     * записывается в журнал card_transaction.
+     *
+     * @return для каждого перевода количество записей журнала (2 — выполнен, 0 — отклонён)
+     */
+    int[] transferBatch(Long userId, List<Transfer> transfers);
+
+    /**
+     * Вставляет новые карты одним оператором. Строка, номер которой уже есть в
+     * таблице (в том числе выпущен параллельной транзакцией после проверки),
+     * пропускается и не прерывает вставку остальных.
+     *
+     * @return id вставленных карт по card_number_hash; пропущенных карт в ней нет
+     */
+    Map<String, Long> insertSkippingDuplicates(List<CreditCard> cards);
+
+    /**
+     * Потоковое чтение карт по фильтру в порядке id: колонки {@link CardRepository.CardView},
+     * курсор только вперёд, строки подгружаются порциями по fetchSize.
+     * Сущности в контекст персистентности не попадают, поэтому память не растёт
+     * с размером выборки. Вызывать внутри транзакции и закрывать Stream.
+     */
+    Stream<CardRepository.CardView> streamAll(Specification<CreditCard> spec, int fetchSize);
+
+    /**
+     * Одним оператором переводит в BLOCKED карты с заявкой на блокировку
+     * (to_block = true) и снимает заявку. Карты блокируются в порядке id,
+     * как и при переводах.
+     *
+     * @param fromStatuses статусы, из которых допустим переход в BLOCKED
+     * @param userId       только карты этого пользователя (null — все)
+     * @param cardIds      только эти карты (null — все)
+     * @return id заблокированных карт
+     */
+    List<Long> blockRequested(Collection<CreditCard.CardStatus> fromStatuses, Long userId, Collection<Long> cardIds);
+}
@@ -0,0 +1,261 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CreditCard;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class CardRepositoryCustomImpl implements CardRepositoryCustom {
+
+    // locked блокирует обе карты в порядке возрастания id (как и
+    // CardRepository.lockInIdOrder), dst проверяет карту зачисления, src
+    // списывает только при наличии dst, dep зачисляет только при успешном
+    // src; обе карты должны быть с неистёкшим сроком действия, даже если
+    // CardExpirySweeper ещё не перевёл их в EXPIRED. Внешний INSERT пишет
+    // обе записи журнала card_transaction, поэтому
+    // количество вставленных строк (2 или 0) и есть результат перевода.
+    private static final String TRANSFER_SQL = """
+        WITH locked AS (
+            SELECT id, user_id, status, to_block, expiry_date FROM credit_card
+             WHERE id IN (?, ?)
+             ORDER BY id
+               FOR UPDATE
+        ), dst AS (
+            SELECT id FROM locked
+             WHERE id = ?
+               AND user_id = ?
+               AND status = 'ACTIVE'
+               AND to_block = false
+               AND expiry_date >= CURRENT_DATE
+        ), src AS (
+            UPDATE credit_card
+               SET balance = balance - ?
+             WHERE id = ?
+               AND user_id = ?
+               AND balance >= ?
+               AND status = 'ACTIVE'
+               AND to_block = false
+               AND expiry_date >= CURRENT_DATE
+               AND EXISTS (SELECT 1 FROM dst)
+            RETURNING id, balance
+        ), dep AS (
+            UPDATE credit_card
+               SET balance = balance + ?
+             WHERE id = (SELECT id FROM dst)
+               AND EXISTS (SELECT 1 FROM src)
+            RETURNING id, balance
+        )
+        INSERT INTO card_transaction (card_id, counterpart_card_id, type, amount, balance_after)
+        SELECT s.id, d.id, CAST('DEBIT' AS card_transaction_type), ?, s.balance FROM src s, dep d
+        UNION ALL
+        SELECT d.id, s.id, CAST('CREDIT' AS card_transaction_type), ?, d.balance FROM src s, dep d
+        """;
+
+    // target берёт блокировки в порядке id (как lockInIdOrder у переводов);
+    // строка, изменённая конкурентно, перепроверяется по условиям WHERE
+    private static final String BLOCK_REQUESTED_SQL = """
+        WITH target AS (
+            SELECT id FROM credit_card
+             WHERE to_block = true
+               AND status IN (%s)%s
+             ORDER BY id
+               FOR UPDATE
+        )
+        UPDATE credit_card c
+           SET status = 'BLOCKED',
+               to_block = false
+          FROM target t
+         WHERE c.id = t.id
+        RETURNING c.id
+        """;
+
+    // ON CONFLICT без цели: номер уникален и по card_number, и по card_number_hash,
+    // пропускаем строку при нарушении любого из них. id берутся из credit_card_seq
+    // напрямую: значение последовательности, полученное здесь, Hibernate (pooled,
+    // шаг 50) уже не выдаст, а его блок id никому не достаётся
+    private static final String INSERT_SKIPPING_DUPLICATES_SQL = """
+        INSERT INTO credit_card (id, card_holder, card_number, card_number_hash,
+                                 expiry_date, status, to_block, balance, user_id)
+        SELECT nextval('credit_card_seq'), t.card_holder, t.card_number, t.card_number_hash,
+               t.expiry_date, CAST(t.status AS credit_card_status), t.to_block, t.balance, t.user_id
+          FROM unnest(?, ?, ?, ?, ?, ?, ?, ?)
+               AS t(card_holder, card_number, card_number_hash, expiry_date, status, to_block, balance, user_id)
+        ON CONFLICT DO NOTHING
+        RETURNING card_number_hash, id
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Override
+    public int[] transferBatch(Long userId, List<Transfer> transfers) {
+        if (transfers.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(TRANSFER_SQL, transfers, transfers.size(), (ps, t) -> {
+            BigDecimal amount = new BigDecimal(t.amount());
+            ps.setLong(1, t.fromId());
+            ps.setLong(2, t.toId());
+            ps.setLong(3, t.toId());
+            ps.setLong(4, userId);
+            ps.setBigDecimal(5, amount);
+            ps.setLong(6, t.fromId());
+            ps.setLong(7, userId);
+            ps.setBigDecimal(8, amount);
+            ps.setBigDecimal(9, amount);
+            ps.setBigDecimal(10, amount);
+            ps.setBigDecimal(11, amount);
+        })[0];
+    }
+
+    @Override
+    public Map<String, Long> insertSkippingDuplicates(List<CreditCard> cards) {
+        Map<String, Long> inserted = new HashMap<>();
+        if (cards.isEmpty()) {
+            return inserted;
+        }
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(INSERT_SKIPPING_DUPLICATES_SQL);
+            ps.setArray(1, con.createArrayOf("text", cards.stream().map(CreditCard::getCardHolder).toArray()));
+            ps.setArray(2, con.createArrayOf("text", cards.stream().map(CreditCard::getCardNumber).toArray()));
+            ps.setArray(3, con.createArrayOf("text", cards.stream().map(CreditCard::getCardNumberHash).toArray()));
+            ps.setArray(4, con.createArrayOf("date", cards.stream().map(c -> Date.valueOf(c.getExpiryDate())).toArray()));
+            ps.setArray(5, con.createArrayOf("text", cards.stream().map(c -> c.getStatus().name()).toArray()));
+            ps.setArray(6, con.createArrayOf("boolean", cards.stream().map(CreditCard::getToBlock).toArray()));
+            ps.setArray(7, con.createArrayOf("numeric", cards.stream().map(c -> new BigDecimal(c.getBalance())).toArray()));
+            ps.setArray(8, con.createArrayOf("bigint", cards.stream().map(c -> c.getOwner().getId()).toArray()));
+            return ps;
+        }, (RowCallbackHandler) rs -> inserted.put(rs.getString("card_number_hash"), rs.getLong("id")));
+        return inserted;
+    }
+
+    @Override
+    public Stream<CardRepository.CardView> streamAll(Specification<CreditCard> spec, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<CreditCard> root = query.from(CreditCard.class);
+
+        query.multiselect(
+                root.get("id").alias("id"),
+                root.get("cardHolder").alias("cardHolder"),
+                root.get("cardNumber").alias("cardNumber"),
+                root.get("expiryDate").alias("expiryDate"),
+                root.get("status").alias("status"),
+                root.get("toBlock").alias("toBlock"),
+                root.get("balance").alias("balance"),
+                root.get("userId").alias("userId"));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("id")));
+
+        // без fetch size драйвер PostgreSQL читает весь результат в память
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(TupleCardView::new);
+    }
+
+    @Override
+    public List<Long> blockRequested(Collection<CreditCard.CardStatus> fromStatuses, Long userId,
+                                     Collection<Long> cardIds) {
+        if (fromStatuses.isEmpty() || (cardIds != null && cardIds.isEmpty())) {
+            return List.of();
+        }
+
+        List<Object> params = new ArrayList<>();
+        StringBuilder filters = new StringBuilder();
+        fromStatuses.forEach(s -> params.add(s.name()));
+        if (userId != null) {
+            filters.append("\n               AND user_id = ?");
+            params.add(userId);
+        }
+        if (cardIds != null) {
+            filters.append("\n               AND id = ANY (?)");
+            params.add(cardIds.toArray(Long[]::new));
+        }
+
+        String statuses = String.join(", ",
+                Collections.nCopies(fromStatuses.size(), "CAST(? AS credit_card_status)"));
+        String sql = BLOCK_REQUESTED_SQL.formatted(statuses, filters);
+
+        return jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(sql);
+            for (int i = 0; i < params.size(); i++) {
+                Object param = params.get(i);
+                if (param instanceof Long[] ids) {
+                    ps.setArray(i + 1, con.createArrayOf("bigint", ids));
+                } else {
+                    ps.setObject(i + 1, param);
+                }
+            }
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+
+    private record TupleCardView(Tuple tuple) implements CardRepository.CardView {
+        @Override
+        public Long getId() {
+            return tuple.get("id", Long.class);
+        }
+
+        @Override
+        public String getCardHolder() {
+            return tuple.get("cardHolder", String.class);
+        }
+
+        @Override
+        public String getCardNumber() {
+            return tuple.get("cardNumber", String.class);
+        }
+
+        @Override
+        public LocalDate getExpiryDate() {
+            return tuple.get("expiryDate", LocalDate.class);
+        }
+
+        @Override
+        public CreditCard.CardStatus getStatus() {
+            return tuple.get("status", CreditCard.CardStatus.class);
+        }
+
+        @Override
+        public Boolean getToBlock() {
+            return tuple.get("toBlock", Boolean.class);
+        }
+
+        @Override
+        public BigInteger getBalance() {
+            return tuple.get("balance", BigInteger.class);
+        }
+
+        @Override
+        public Long getUserId() {
+            return tuple.get("userId", Long.class);
+        }
+    }
+}
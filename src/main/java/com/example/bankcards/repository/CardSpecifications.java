@@ -1,6 +1,7 @@
 package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.CreditCard;
+import com.example.bankcards.util.SearchMode;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
@@ -9,9 +10,16 @@ public class CardSpecifications {
     private CardSpecifications() {}
 
     public static Specification<CreditCard> cardHolderLike(String cardholder) {
+        return cardHolderLike(cardholder, SearchMode.CONTAINS);
+    }
+
+    /**
+     * Выражение lower(card_holder) совпадает с выражением индексов из
+     * 19-01-changelog (trigram для CONTAINS, text_pattern_ops для PREFIX).
+     */
+    public static Specification<CreditCard> cardHolderLike(String cardholder, SearchMode mode) {
         return (root, query, cb) ->
-                cb.like(cb.lower(root.get("cardHolder")),
-                        "%" + cardholder.toLowerCase() + "%");
+                cb.like(cb.lower(root.get("cardHolder")), mode.pattern(cardholder), '\\');
     }
 
     public static Specification<CreditCard> hasUserId(Long userId) {
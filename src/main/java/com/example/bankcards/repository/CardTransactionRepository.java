@@ -0,0 +1,42 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardTransaction;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigInteger;
+
+/**
+ * Журнал только дополняется: репозиторий не наследует CrudRepository,
+ * чтобы не открывать save/delete.
+ */
+public interface CardTransactionRepository extends Repository<CardTransaction, Long>,
+        JpaSpecificationExecutor<CardTransaction> {
+
+    /**
+     * Записывает в журнал перевод: DEBIT по карте списания и CREDIT по карте
+     * зачисления с балансами после операции. Вызывается после withdraw/deposit
+     * в той же транзакции, пока строки карт заблокированы.
+     *
+     * @return количество записей (2)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+        INSERT INTO card_transaction (card_id, counterpart_card_id, type, amount, balance_after)
+        SELECT c.id,
+               CASE WHEN c.id = :fromId THEN :toId ELSE :fromId END,
+               CAST(CASE WHEN c.id = :fromId THEN 'DEBIT' ELSE 'CREDIT' END AS card_transaction_type),
+               :amount,
+               c.balance
+          FROM credit_card c
+         WHERE c.id IN (:fromId, :toId)
+        """, nativeQuery = true)
+    int recordTransfer(
+            @Param("fromId") Long fromId,
+            @Param("toId") Long toId,
+            @Param("amount") BigInteger amount
+    );
+}
@@ -0,0 +1,13 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardTransaction;
+import org.springframework.data.jpa.domain.Specification;
+
+public class CardTransactionSpecifications {
+    private CardTransactionSpecifications() {}
+
+    public static Specification<CardTransaction> hasCardId(Long cardId) {
+        return (root, query, cb) ->
+                cb.equal(root.get("cardId"), cardId);
+    }
+}
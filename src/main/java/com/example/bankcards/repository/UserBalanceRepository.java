@@ -0,0 +1,64 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.UserBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigInteger;
+import java.util.List;
+
+public interface UserBalanceRepository extends JpaRepository<UserBalance, Long> {
+
+    /**
+     * Прибавляет delta к сумме пользователя (создаёт строку при отсутствии).
+     * Вызывается в транзакции, изменившей баланс карт.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        INSERT INTO user_balance (user_id, total)
+        VALUES (:userId, :delta)
+        ON CONFLICT (user_id) DO UPDATE SET total = user_balance.total + EXCLUDED.total
+        """, nativeQuery = true)
+    int add(@Param("userId") Long userId, @Param("delta") BigInteger delta);
+
+    /**
+     * Пользователи, у которых сохранённая сумма расходится с суммой балансов карт.
+     * Один оператор — один снимок данных, поэтому незавершённые транзакции
+     * расхождения не дают.
+     */
+    @Query(value = """
+        SELECT COALESCE(ub.user_id, c.user_id) AS "userId",
+               COALESCE(ub.total, 0)           AS "stored",
+               COALESCE(c.actual, 0)           AS "actual"
+          FROM user_balance ub
+          FULL JOIN (SELECT user_id, SUM(balance) AS actual
+                       FROM credit_card
+                      WHERE user_id IS NOT NULL
+                      GROUP BY user_id) c ON c.user_id = ub.user_id
+         WHERE COALESCE(ub.total, 0) <> COALESCE(c.actual, 0)
+        """, nativeQuery = true)
+    List<Drift> findDrift();
+
+    /**
+     * Пересчитывает сумму пользователя по credit_card.
+     * Перед вызовом строку нужно заблокировать ({@link #lockByUserId}).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        INSERT INTO user_balance (user_id, total)
+        SELECT :userId, COALESCE(SUM(balance), 0) FROM credit_card WHERE user_id = :userId
+        ON CONFLICT (user_id) DO UPDATE SET total = EXCLUDED.total
+        """, nativeQuery = true)
+    int recalculate(@Param("userId") Long userId);
+
+    @Query(value = "SELECT user_id FROM user_balance WHERE user_id = :userId FOR UPDATE", nativeQuery = true)
+    List<Long> lockByUserId(@Param("userId") Long userId);
+
+    interface Drift {
+        Long getUserId();
+        BigInteger getStored();
+        BigInteger getActual();
+    }
+}
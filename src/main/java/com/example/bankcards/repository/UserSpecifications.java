@@ -1,6 +1,7 @@
 package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.User;
+import com.example.bankcards.util.SearchMode;
 import org.springframework.data.jpa.domain.Specification;
 
 public final class UserSpecifications {
@@ -8,21 +9,31 @@ public final class UserSpecifications {
     private UserSpecifications() {}
 
     public static Specification<User> firstNameLike(String firstName) {
+        return firstNameLike(firstName, SearchMode.CONTAINS);
+    }
+
+    // lower(...) совпадает с выражением индексов из 19-01-changelog
+    public static Specification<User> firstNameLike(String firstName, SearchMode mode) {
         return (root, query, cb) ->
-                cb.like(cb.lower(root.get("firstName")),
-                        "%" + firstName.toLowerCase() + "%");
+                cb.like(cb.lower(root.get("firstName")), mode.pattern(firstName), '\\');
     }
 
     public static Specification<User> lastNameLike(String lastName) {
+        return lastNameLike(lastName, SearchMode.CONTAINS);
+    }
+
+    public static Specification<User> lastNameLike(String lastName, SearchMode mode) {
         return (root, query, cb) ->
-                cb.like(cb.lower(root.get("lastName")),
-                        "%" + lastName.toLowerCase() + "%");
+                cb.like(cb.lower(root.get("lastName")), mode.pattern(lastName), '\\');
     }
 
     public static Specification<User> emailLike(String email) {
+        return emailLike(email, SearchMode.CONTAINS);
+    }
+
+    public static Specification<User> emailLike(String email, SearchMode mode) {
         return (root, query, cb) ->
-                cb.like(cb.lower(root.get("email")),
-                        "%" + email.toLowerCase() + "%");
+                cb.like(cb.lower(root.get("email")), mode.pattern(email), '\\');
     }
 
     public static Specification<User> hasRole(User.Role role) {
@@ -30,4 +41,3 @@ public final class UserSpecifications {
                 cb.equal(root.get("role"), role);
     }
 }
-
@@ -0,0 +1,60 @@
+package com.example.bankcards.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Кэш уже проверенных токенов: повторный запрос с тем же токеном не проверяет
+ * HMAC-подпись и не разбирает claims заново.
+ * <p>
+ * Запись живёт не дольше срока действия токена (exp); токены без exp и с уже
+ * истёкшим exp (приняты с допуском на рассинхрон часов) не кэшируются.
+ * Ошибки декодирования не кэшируются. Отзыв токенов проверяется снаружи
+ * ({@link RevocationCheckingJwtDecoder}) на каждом запросе.
+ * <p>
+ * Ключ — сама строка токена: {@link Jwt} всё равно хранит её целиком, а
+ * криптографический хеш ключа стоил бы столько же, сколько проверка подписи.
+ * Метрики: cache.gets (hit/miss), cache.evictions, cache.size с тегом cache=jwt.decoder.
+ */
+public class CachingJwtDecoder implements JwtDecoder, MeterBinder {
+    private final JwtDecoder delegate;
+    private final Cache<String, Jwt> cache;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maxSize) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.creating((String token, Jwt jwt) -> timeToLive(jwt)))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        return cache.get(token, delegate::decode);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "jwt.decoder");
+    }
+
+    private static Duration timeToLive(Jwt jwt) {
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt == null) {
+            return Duration.ZERO;
+        }
+        Duration ttl = Duration.between(Instant.now(), expiresAt);
+        return ttl.isNegative() ? Duration.ZERO : ttl;
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -19,7 +20,17 @@ public class JwtService {
     @Value("${app.jwt.expiration-time-min}")
     private long jwtTtlMinutes;
 
+    public static final String SESSION_ID_CLAIM = "sid";
+
     public String generateToken(User user) {
+        return generateToken(user, null);
+    }
+
+    /**
+     * @param sessionId семейство refresh-токенов, к которому относится токен (claim "sid"):
+     *                  по нему logout отзывает и refresh-токены этой сессии
+     */
+    public String generateToken(User user, String sessionId) {
         Instant now = Instant.now();
 
         List<String> roles = user.getAuthorities().stream()
@@ -27,12 +38,18 @@ public class JwtService {
                 .toList();
 
         JwtClaimsSet claims = JwtClaimsSet.builder()
+                .id(UUID.randomUUID().toString())   // jti: по нему токен можно отозвать
                 .issuer("self")
                 .issuedAt(now)
                 .expiresAt(now.plusSeconds(jwtTtlMinutes * 60))
                 .subject(user.getEmail())
                 .claim("userId", user.getId())
                 .claim("roles", roles)
+                .claims(c -> {
+                    if (sessionId != null) {
+                        c.put(SESSION_ID_CLAIM, sessionId);
+                    }
+                })
                 .build();
 
         return jwtEncoder
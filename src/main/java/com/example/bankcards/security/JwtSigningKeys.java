@@ -0,0 +1,137 @@
+package com.example.bankcards.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.jose.jws.JwsAlgorithm;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import javax.crypto.SecretKey;
+import java.text.ParseException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Ключи подписи JWT: общий HMAC-секрет (HS256) или набор EC-ключей (ES256),
+ * различаемых по kid. Из одного набора строятся кодировщик (подписывает
+ * активным ключом), декодер (ищет ключ по kid из заголовка токена) и
+ * публичный JWKSet для /.well-known/jwks.json.
+ */
+@Slf4j
+public final class JwtSigningKeys {
+    private static final String HMAC_KEY_ID = "shared-secret";
+
+    private final JwsAlgorithm algorithm;
+    private final JWKSet jwkSet;
+    private final String activeKeyId;
+    private final SecretKey secretKey;
+
+    private JwtSigningKeys(JwsAlgorithm algorithm, JWKSet jwkSet, String activeKeyId, SecretKey secretKey) {
+        this.algorithm = algorithm;
+        this.jwkSet = jwkSet;
+        this.activeKeyId = activeKeyId;
+        this.secretKey = secretKey;
+    }
+
+    public static JwtSigningKeys hmac(SecretKey secretKey) {
+        OctetSequenceKey jwk = new OctetSequenceKey.Builder(secretKey)
+                .algorithm(JWSAlgorithm.HS256)
+                .keyID(HMAC_KEY_ID)
+                .build();
+        return new JwtSigningKeys(MacAlgorithm.HS256, new JWKSet(jwk), HMAC_KEY_ID, secretKey);
+    }
+
+    /**
+     * @param keys EC-ключи P-256; первый — активный (должен содержать приватную часть)
+     */
+    public static JwtSigningKeys ec(List<ECKey> keys) {
+        if (keys.isEmpty() || !keys.get(0).isPrivate()) {
+            throw new IllegalStateException("ES256 signing requires a private EC key first in app.jwt.signing.keys");
+        }
+        for (ECKey key : keys) {
+            if (key.getKeyID() == null || !Curve.P_256.equals(key.getCurve())) {
+                throw new IllegalStateException("ES256 keys must be P-256 and have a kid");
+            }
+        }
+        List<JWK> jwks = keys.stream().<JWK>map(key -> new ECKey.Builder(key)
+                .algorithm(JWSAlgorithm.ES256)
+                .build()).toList();
+        return new JwtSigningKeys(SignatureAlgorithm.ES256, new JWKSet(jwks), keys.get(0).getKeyID(), null);
+    }
+
+    public static JwtSigningKeys from(JwtSigningProperties properties, SecretKey secretKey) {
+        if (properties.getAlgorithm() == JwtSigningProperties.Algorithm.HS256) {
+            return hmac(secretKey);
+        }
+        if (properties.getKeys().isEmpty()) {
+            // токены, подписанные таким ключом, не переживут рестарт и не проверятся на других экземплярах
+            log.warn("app.jwt.signing.keys is empty: generated an ephemeral ES256 key");
+            return ec(List.of(generateEcKey()));
+        }
+        return ec(properties.getKeys().stream().map(JwtSigningKeys::parseEcKey).toList());
+    }
+
+    public static ECKey generateEcKey() {
+        try {
+            return new ECKeyGenerator(Curve.P_256)
+                    .keyID(UUID.randomUUID().toString())
+                    .generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Error generating EC key", e);
+        }
+    }
+
+    /**
+     * Только публичные ключи; в режиме HS256 — пустой набор (секрет не публикуется).
+     */
+    public JWKSet publicJwkSet() {
+        return jwkSet.toPublicJWKSet();
+    }
+
+    public JwtEncoder encoder() {
+        NimbusJwtEncoder delegate = new NimbusJwtEncoder(new ImmutableJWKSet<>(jwkSet));
+        JwsHeader header = JwsHeader.with(algorithm).keyId(activeKeyId).build();
+
+        // заголовок с алгоритмом и kid активного ключа: при ротации ключей несколько
+        return parameters -> delegate.encode(JwtEncoderParameters.from(header, parameters.getClaims()));
+    }
+
+    public NimbusJwtDecoder decoder() {
+        if (secretKey != null) {
+            return NimbusJwtDecoder.withSecretKey(secretKey)
+                    .macAlgorithm(MacAlgorithm.HS256)
+                    .build();
+        }
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.ES256,
+                new ImmutableJWKSet<>(publicJwkSet())));
+        // exp/nbf проверяют валидаторы Spring (как в билдерах NimbusJwtDecoder)
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        return new NimbusJwtDecoder(processor);
+    }
+
+    private static ECKey parseEcKey(String json) {
+        try {
+            return ECKey.parse(json);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Invalid EC JWK in app.jwt.signing.keys", e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.bankcards.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Алгоритм подписи JWT и ключи для ES256.
+ * <p>
+ * keys — EC-ключи P-256 в формате JWK (JSON) с обязательным "kid". Первым
+ * подписываются новые токены; остальные только проверяются — при ротации новый
+ * ключ ставится первым, а старый остаётся в списке, пока не истекут его токены.
+ * Для проверки достаточно публичной части ключа.
+ */
+@ConfigurationProperties(prefix = "app.jwt.signing")
+public class JwtSigningProperties {
+
+    public enum Algorithm {
+        HS256,
+        ES256
+    }
+
+    private Algorithm algorithm = Algorithm.HS256;
+
+    private List<String> keys = new ArrayList<>();
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(Algorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public List<String> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(List<String> keys) {
+        this.keys = keys;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.service.TokenRevocationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * Декодер, отклоняющий отозванные токены. Проверка по списку в памяти
+ * ({@link TokenRevocationService#isRevoked}) — без обращения к БД;
+ * отозванный токен даёт 401, как и просроченный.
+ */
+@RequiredArgsConstructor
+public class RevocationCheckingJwtDecoder implements JwtDecoder {
+    private final JwtDecoder delegate;
+    private final TokenRevocationService revocations;
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        Jwt jwt = delegate.decode(token);
+        if (revocations.isRevoked(jwt)) {
+            throw new BadJwtException("Token has been revoked");
+        }
+        return jwt;
+    }
+}
@@ -1,12 +1,11 @@
 package com.example.bankcards.security;
 
-import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.OctetSequenceKey;
-import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
-import com.nimbusds.jose.jwk.source.JWKSource;
-import com.nimbusds.jose.proc.SecurityContext;
+import com.example.bankcards.service.TokenRevocationService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -18,7 +17,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.oauth2.jwt.*;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
@@ -31,18 +30,25 @@ import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 @RequiredArgsConstructor
-@EnableConfigurationProperties(CorsProperties.class)
+@EnableConfigurationProperties({CorsProperties.class, JwtSigningProperties.class})
 public class SecurityConfig {
     private final CorsProperties corsProperties;
+    private final JwtSigningProperties signingProperties;
 
     @Value("${app.jwt.secret}")
     private String secret;
 
+    @Value("${app.jwt.decoder-cache.max-size:10000}")
+    private long decoderCacheSize;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         return http
@@ -56,8 +62,10 @@ public class SecurityConfig {
                 )
                 .authorizeHttpRequests(authorize ->
                         authorize
+                                .requestMatchers("/api/*/auth/logout").authenticated()
                                 .requestMatchers(
                                         "/api/*/auth/**",
+                                        "/.well-known/jwks.json",
                                         "/swagger-ui.html", "/swagger-ui/**",
                                         "/swagger-resources", "/swagger-resources/**",
                                         "/configuration/ui", "/configuration/security",
@@ -108,8 +116,15 @@ public class SecurityConfig {
         converter.setAuthoritiesClaimName("roles");     // default - "scope", "scp"
         converter.setAuthorityPrefix("ROLE_");          // default - "SCOPE_"
 
+        // различных наборов ролей единицы: authorities для каждого собираются один раз
+        Cache<Object, Collection<GrantedAuthority>> authorities = Caffeine.newBuilder()
+                .maximumSize(64)
+                .build();
+
         JwtAuthenticationConverter jwtConverter = new JwtAuthenticationConverter();
-        jwtConverter.setJwtGrantedAuthoritiesConverter(converter);
+        jwtConverter.setJwtGrantedAuthoritiesConverter(jwt -> authorities.get(
+                Objects.requireNonNullElse(jwt.getClaim("roles"), List.of()),
+                roles -> converter.convert(jwt)));
 
         return jwtConverter;
     }
@@ -120,31 +135,28 @@ public class SecurityConfig {
         return new SecretKeySpec(keyBytes, "HmacSHA256");
     }
 
+    /**
+     * HS256 (общий секрет app.jwt.secret) или ES256 (app.jwt.signing.keys, ротация по kid).
+     */
     @Bean
-    JwtDecoder jwtDecoder(SecretKey secretKey) {
-        return NimbusJwtDecoder.withSecretKey(secretKey)
-                .macAlgorithm(MacAlgorithm.HS256)
-                .build();
+    JwtSigningKeys jwtSigningKeys(SecretKey secretKey) {
+        return JwtSigningKeys.from(signingProperties, secretKey);
     }
 
+    /**
+     * Проверка подписи и разбор claims кэшируются до exp токена,
+     * проверка отзыва выполняется на каждом запросе.
+     */
     @Bean
-    JwtEncoder jwtEncoder(SecretKey secretKey) {
-        OctetSequenceKey jwk = new OctetSequenceKey.Builder(secretKey)
-                .algorithm(JWSAlgorithm.HS256)
-                .keyID("shared-secret")
-                .build();
-
-        JWKSource<SecurityContext> jwks = new ImmutableJWKSet<>(new JWKSet(jwk));
-
-        NimbusJwtEncoder delegate = new NimbusJwtEncoder(jwks);
-
-        // обёртка с дефолтным JWS Header
-        return parameters -> {
-            JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
-            JwtEncoderParameters enriched =
-                    JwtEncoderParameters.from(header, parameters.getClaims());
+    JwtDecoder jwtDecoder(JwtSigningKeys signingKeys, TokenRevocationService revocations,
+                          ObjectProvider<MeterRegistry> meterRegistry) {
+        CachingJwtDecoder cachingDecoder = new CachingJwtDecoder(signingKeys.decoder(), decoderCacheSize);
+        meterRegistry.ifAvailable(cachingDecoder::bindTo);
+        return new RevocationCheckingJwtDecoder(cachingDecoder, revocations);
+    }
 
-            return delegate.encode(enriched);
-        };
+    @Bean
+    JwtEncoder jwtEncoder(JwtSigningKeys signingKeys) {
+        return signingKeys.encoder();
     }
 }
@@ -0,0 +1,62 @@
+package com.example.bankcards.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Отозванные токены в памяти: точный набор jti и "отсечки" по пользователям
+ * (все токены пользователя, выпущенные раньше отсечки, недействительны).
+ * <p>
+ * Проверка — два поиска в {@link ConcurrentHashMap} без блокировок, поэтому её
+ * можно выполнять на каждом запросе. Размер ограничен: запись о jti нужна
+ * только до истечения самого токена, отсечка — не дольше времени жизни токена,
+ * после чего {@link #purgeExpired} их удаляет.
+ */
+public final class TokenRevocationList {
+    private final Map<String, Instant> revokedJti = new ConcurrentHashMap<>();
+    private final Map<Long, Instant> userCutoffs = new ConcurrentHashMap<>();
+
+    /**
+     * @param expiresAt момент истечения токена: после него запись не нужна
+     */
+    public void revoke(String jti, Instant expiresAt) {
+        revokedJti.merge(jti, expiresAt, (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    /**
+     * Все токены пользователя, выпущенные до {@code cutoff}, считаются отозванными.
+     */
+    public void revokeUserBefore(Long userId, Instant cutoff) {
+        userCutoffs.merge(userId, cutoff, (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    /**
+     * iat в JWT хранится с точностью до секунды, поэтому токен, выпущенный
+     * в ту же секунду, что и отсечка, тоже считается отозванным.
+     */
+    public boolean isRevoked(String jti, Long userId, Instant issuedAt) {
+        if (jti != null && revokedJti.containsKey(jti)) {
+            return true;
+        }
+        if (userId == null || userCutoffs.isEmpty()) {
+            return false;
+        }
+        Instant cutoff = userCutoffs.get(userId);
+        return cutoff != null && (issuedAt == null || issuedAt.isBefore(cutoff));
+    }
+
+    /**
+     * @param tokenTtl время жизни токена: отсечка старше него уже ничего не отсекает
+     */
+    public void purgeExpired(Instant now, Duration tokenTtl) {
+        revokedJti.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+        Instant oldestLiveIssue = now.minus(tokenTtl);
+        userCutoffs.values().removeIf(cutoff -> cutoff.isBefore(oldestLiveIssue));
+    }
+
+    public int size() {
+        return revokedJti.size() + userCutoffs.size();
+    }
+}
@@ -1,12 +1,22 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.RefreshTokenDto;
 import com.example.bankcards.dto.UserLoginDto;
 import com.example.bankcards.dto.UserLoginRespDto;
 import com.example.bankcards.dto.UserRegisterDto;
 import com.example.bankcards.dto.UserRespDto;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.concurrent.CompletableFuture;
 
 public interface AuthService {
     UserRespDto register(UserRegisterDto dto);
 
     UserLoginRespDto login(UserLoginDto authRequest);
+
+    CompletableFuture<UserLoginRespDto> loginAsync(UserLoginDto authRequest);
+
+    UserLoginRespDto refresh(RefreshTokenDto dto);
+
+    void logout(Jwt jwt);
 }
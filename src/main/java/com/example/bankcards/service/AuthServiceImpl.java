@@ -1,5 +1,6 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.RefreshTokenDto;
 import com.example.bankcards.dto.UserLoginDto;
 import com.example.bankcards.dto.UserLoginRespDto;
 import com.example.bankcards.dto.UserRegisterDto;
@@ -10,11 +11,15 @@ import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.security.JwtService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
@@ -22,6 +27,10 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder encoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final UserCache userCache;
+    private final LoginExecutor loginExecutor;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
 
     public UserRespDto register(UserRegisterDto dto) {
         if (repository.existsByEmail(dto.getEmail())) {
@@ -35,6 +44,7 @@ public class AuthServiceImpl implements AuthService {
                 .lastName(dto.getLastName())
                 .build();
         repository.saveAndFlush(newUser);
+        userCache.evict(newUser.getId(), newUser.getEmail());
         return UserRespDto.toDto(newUser);
     }
 
@@ -46,8 +56,46 @@ public class AuthServiceImpl implements AuthService {
                 ));
         User user = (User) auth.getPrincipal();
 
-        String token = jwtService.generateToken(user);
+        RefreshTokenService.Issued refreshToken = refreshTokenService.issue(user.getId());
+        String token = jwtService.generateToken(user, refreshToken.sessionId());
+
+        return new UserLoginRespDto(user.getId(), token, refreshToken.token());
+    }
+
+    /**
+     * Новый JWT по refresh-токену: без AuthenticationManager и BCrypt —
+     * один UPDATE по хешу токена и пользователь из {@link UserCache}.
+     * Предъявленный refresh-токен становится недействительным, в ответе — новый.
+     */
+    public UserLoginRespDto refresh(RefreshTokenDto dto) {
+        RefreshTokenService.Consumed consumed = refreshTokenService.consume(dto.refreshToken());
+        // Юзер проверяется до выпуска нового токена: удалённому токен не остаётся
+        User user = userCache.findById(consumed.userId())
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        RefreshTokenService.Issued refreshToken = refreshTokenService.issue(user.getId(), consumed.sessionId());
+
+        String token = jwtService.generateToken(user, refreshToken.sessionId());
 
-        return new UserLoginRespDto(user.getId(), token);
+        return new UserLoginRespDto(user.getId(), token, refreshToken.token());
+    }
+
+    /**
+     * Логин в пуле {@link LoginExecutor}: проверка BCrypt не занимает поток запроса.
+     *
+     * @throws com.example.bankcards.exception.ServiceUnavailableException если очередь логинов заполнена
+     */
+    public CompletableFuture<UserLoginRespDto> loginAsync(UserLoginDto authRequest) {
+        return loginExecutor.submit(() -> login(authRequest));
+    }
+
+    /**
+     * Отзывает токен, с которым пришёл запрос, и refresh-токены его сессии.
+     */
+    public void logout(Jwt jwt) {
+        tokenRevocationService.revoke(jwt);
+        String sessionId = jwt.getClaimAsString(JwtService.SESSION_ID_CLAIM);
+        if (sessionId != null) {
+            refreshTokenService.revokeSession(sessionId);
+        }
     }
 }
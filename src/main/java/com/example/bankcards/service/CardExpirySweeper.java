@@ -0,0 +1,71 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.repository.CardRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Переводит карты с истёкшим сроком действия в EXPIRED.
+ * <p>
+ * Обновление идёт порциями по app.expiry-sweep.chunk-size строк, каждая порция
+ * в своей короткой транзакции; строки, занятые переводами, пропускаются
+ * (SKIP LOCKED) и достаются следующему запуску. Метрики:
+ * card.expiry-sweep.cards — число карт за запуск, card.expiry-sweep.duration —
+ * длительность запуска.
+ */
+@Component
+@Slf4j
+public class CardExpirySweeper {
+
+    private final CardRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxChunks;
+    private final DistributionSummary swept;
+    private final Timer duration;
+
+    public CardExpirySweeper(CardRepository repository,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.expiry-sweep.chunk-size:1000}") int chunkSize,
+                             @Value("${app.expiry-sweep.max-chunks:1000}") int maxChunks) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.maxChunks = maxChunks;
+        this.swept = DistributionSummary.builder("card.expiry-sweep.cards")
+                .description("Cards moved to EXPIRED per sweep run")
+                .register(meterRegistry);
+        this.duration = Timer.builder("card.expiry-sweep.duration")
+                .description("Expiry sweep run duration")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.expiry-sweep.cron:0 5 * * * *}")
+    public void sweep() {
+        duration.record(this::sweepChunks);
+    }
+
+    private void sweepChunks() {
+        int total = 0;
+
+        for (int chunk = 0; chunk < maxChunks; chunk++) {
+            Integer updated = transactionTemplate.execute(status -> repository.expirePastDue(chunkSize));
+            total += updated != null ? updated : 0;
+            if (updated == null || updated < chunkSize) {
+                break;
+            }
+        }
+
+        swept.record(total);
+        if (total > 0) {
+            log.info("Expiry sweep: {} cards moved to EXPIRED", total);
+        }
+    }
+}
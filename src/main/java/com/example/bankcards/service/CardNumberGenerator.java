@@ -0,0 +1,164 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.exception.ServiceUnavailableException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.util.BloomFilter;
+import com.example.bankcards.util.CardUtil;
+import com.example.bankcards.util.CryptoUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Генератор номеров карт, не совпадающих с уже выпущенными.
+ * <p>
+ * Выпущенные номера представлены фильтром Блума по "слепым индексам"
+ * (card_number_hash), который заполняется при старте. Кандидаты, которые
+ * фильтр считает возможно занятыми, отбрасываются сразу; остальные
+ * проверяются в БД одним запросом на блок — это покрывает карты, выпущенные
+ * другими экземплярами приложения или до окончания прогрева.
+ * <p>
+ * В фильтр попадают только номера, которые есть в БД: выпущенные карты
+ * ({@link #register} из создания карт) и занятые номера, найденные проверкой.
+ * Просто выданные номера (предпросмотр) не регистрируются, иначе фильтр
+ * заполнялся бы ими и рос бы процент ложных срабатываний. Два вызова могут
+ * выдать один номер — уникальность при создании карты проверяется отдельно.
+ * Число попыток ограничено: если фильтр переполнен или диапазон номеров
+ * исчерпан, запрос отклоняется {@link ServiceUnavailableException}.
+ */
+@Component
+@Slf4j
+public class CardNumberGenerator implements ApplicationRunner {
+    static final int MAX_BLOCKS = 10;
+    static final int MAX_ATTEMPTS_PER_NUMBER = 100;
+    private static final Duration RETRY_AFTER = Duration.ofMinutes(1);
+    private static final int WARM_UP_FETCH_SIZE = 1_000;
+
+    private final CardRepository repository;
+    private final CryptoUtils cryptoUtils;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+    private final BloomFilter issued;
+
+    public CardNumberGenerator(CardRepository repository,
+                               CryptoUtils cryptoUtils,
+                               JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${app.card-generator.expected-cards:1000000}") long expectedCards,
+                               @Value("${app.card-generator.fpp:0.001}") double fpp) {
+        this.repository = repository;
+        this.cryptoUtils = cryptoUtils;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTx = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTx.setReadOnly(true);
+        this.issued = BloomFilter.create(expectedCards, fpp);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    /**
+     * Заносит в фильтр все выпущенные номера. Чтение курсором в транзакции:
+     * вне транзакции драйвер PostgreSQL игнорирует fetch size.
+     */
+    public void warmUp() {
+        long[] count = {0};
+        try {
+            readOnlyTx.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement(
+                        "SELECT card_number_hash FROM credit_card WHERE card_number_hash IS NOT NULL");
+                ps.setFetchSize(WARM_UP_FETCH_SIZE);
+                return ps;
+            }, rs -> {
+                register(rs.getString(1));
+                count[0]++;
+            }));
+            log.info("Card number filter warmed up with {} cards", count[0]);
+        } catch (DataAccessException ex) {
+            // без прогрева уникальность по-прежнему проверяется запросом к БД
+            log.error("Can not warm up card number filter: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Отмечает номер как выпущенный.
+     *
+     * @param cardNumberHash "слепой индекс" номера ({@link CryptoUtils#hash(String)})
+     */
+    public void register(String cardNumberHash) {
+        issued.put(h1(cardNumberHash), h2(cardNumberHash));
+    }
+
+    public String generate() {
+        return generate(1).get(0);
+    }
+
+    /**
+     * @return count разных номеров, которых нет среди выпущенных
+     * @throws ServiceUnavailableException если подходящие номера не найдены за отведённые попытки
+     */
+    public List<String> generate(int count) {
+        List<String> result = new ArrayList<>(count);
+        Set<String> seen = new HashSet<>();
+
+        for (int block = 0; result.size() < count; block++) {
+            if (block == MAX_BLOCKS) {
+                throw exhausted(count);
+            }
+
+            Map<String, String> candidates = new LinkedHashMap<>();
+            int needed = count - result.size();
+            long attempts = (long) needed * MAX_ATTEMPTS_PER_NUMBER;
+            while (candidates.size() < needed) {
+                if (attempts-- == 0) {
+                    throw exhausted(count);
+                }
+                String number = CardUtil.generateCardNumber();
+                String hash = cryptoUtils.hash(number);
+                if (!issued.mightContain(h1(hash), h2(hash)) && seen.add(hash)) {
+                    candidates.put(hash, number);
+                }
+            }
+
+            Set<String> taken = new HashSet<>(repository.findExistingHashes(candidates.keySet()));
+            taken.forEach(this::register);
+            candidates.forEach((hash, number) -> {
+                if (!taken.contains(hash)) {
+                    result.add(number);
+                }
+            });
+        }
+
+        return result;
+    }
+
+    private static ServiceUnavailableException exhausted(int count) {
+        log.error("Can not generate {} unique card numbers: filter is saturated or the number range is exhausted",
+                count);
+        return new ServiceUnavailableException("Can not generate " + count + " unique card numbers", RETRY_AFTER);
+    }
+
+    private static long h1(String hexHash) {
+        return HexFormat.fromHexDigitsToLong(hexHash, 0, 16);
+    }
+
+    private static long h2(String hexHash) {
+        return HexFormat.fromHexDigitsToLong(hexHash, 16, 32);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.CreditCard;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.util.CryptoUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Заполняет card_number_hash для карт, созданных до появления "слепого индекса".
+ * Работает порциями, каждая порция — в своей транзакции.
+ * <p>
+ * HMAC считается ключом приложения, поэтому в миграции его не посчитать.
+ * Changeset 23-01 делает столбец NOT NULL на первом старте после того,
+ * как backfill отработал; после этого здесь остаётся один пустой запрос
+ * по уникальному индексу.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CardNumberHashBackfill implements ApplicationRunner {
+
+    private final CardRepository repository;
+    private final CryptoUtils cryptoUtils;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int total = 0;
+        int updated;
+        do {
+            updated = transactionTemplate.execute(status -> {
+                List<CreditCard> cards = repository.findTop500ByCardNumberHashIsNullOrderById();
+                cards.forEach(card -> card.setCardNumberHash(
+                        cryptoUtils.hash(cryptoUtils.decrypt(card.getCardNumber()))));
+                return cards.size();
+            });
+            total += updated;
+        } while (updated > 0);
+
+        if (total > 0) {
+            log.info("Card number hash backfilled for {} cards", total);
+        }
+    }
+}
@@ -3,15 +3,30 @@ package com.example.bankcards.service;
 import com.example.bankcards.dto.*;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.function.Consumer;
 
 public interface CardService {
     Page<CardRespDto> getUserCards(CardHolderListDto filter, Pageable pageable);
+    CursorPageDto<CardRespDto> getUserCardsByCursor(CardHolderListDto filter, String cursor, Sort sort, int size);
+    SliceDto<CardRespDto> getUserCardsSlice(CardHolderListDto filter, Pageable pageable);
     String generate();
+    List<String> generate(int count);
     CardRespDto create(CardCreateDto dto);
+    CardBatchCreateRespDto createBatch(CardBatchCreateDto dto);
+    CardRespDto findByNumber(CardNumberDto dto);
     Page<CardRespDto> getCardsList(CardsListDto filter, Pageable pageable);
+    CursorPageDto<CardRespDto> getCardsListByCursor(CardsListDto filter, String cursor, Sort sort, int size);
+    SliceDto<CardRespDto> getCardsListSlice(CardsListDto filter, Pageable pageable);
+    void exportCards(CardsListDto filter, Consumer<CardRespDto> consumer);
     CardRespDto blockRequest(Long cardId);
     Boolean transfer(CardTransferDto dto);
+    CardBatchTransferRespDto transferBatch(CardBatchTransferDto dto);
     void delete(Long cardId);
     CardRespDto changeStatus(Long cardId, CardStatusDto dto);
+    CardBlockApproveRespDto approveBlockRequests(CardBlockApproveDto dto);
     String getTotalBalanceByUser();
+    CursorPageDto<CardTransactionDto> getCardTransactions(Long cardId, String cursor, int size);
 }
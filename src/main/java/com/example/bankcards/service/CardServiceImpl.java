@@ -1,45 +1,186 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.dto.*;
+import com.example.bankcards.entity.CardTransaction;
 import com.example.bankcards.entity.CreditCard;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.UserBalance;
 import com.example.bankcards.exception.BusinessException;
 import com.example.bankcards.exception.ConflictException;
+import com.example.bankcards.exception.InvalidRequestException;
 import com.example.bankcards.exception.OperationRejectedException;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardRepository.CardView;
+import com.example.bankcards.repository.CardRepositoryCustom;
 import com.example.bankcards.repository.CardSpecifications;
+import com.example.bankcards.repository.CardTransactionRepository;
+import com.example.bankcards.repository.CardTransactionSpecifications;
+import com.example.bankcards.repository.UserBalanceRepository;
+import com.example.bankcards.util.CardCursor;
 import com.example.bankcards.util.CardUtil;
 import com.example.bankcards.util.CryptoUtils;
+import com.example.bankcards.util.SearchMode;
+import com.example.bankcards.util.TransactionCursor;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigInteger;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 @Slf4j
 public class CardServiceImpl implements CardService{
+    static final int MAX_GENERATE_COUNT = 1000;
 
     private final CardRepository repository;
+    private final CardTransactionRepository transactionRepository;
+    private final UserBalanceRepository userBalanceRepository;
     private final UserService userService;
     private final CurrentUserService currentUser;
     private final CryptoUtils cryptoUtils;
+    private final CardNumberGenerator cardNumberGenerator;
+
+    @Value("${app.export.fetch-size:500}")
+    private int exportFetchSize;
 
     @Override
     public Page<CardRespDto> getUserCards(CardHolderListDto filter, Pageable pageable) {
 
         Long userId = currentUser.getCurrentUserId();
 
+        Specification<CreditCard> spec = userCardsSpec(userId, filter);
+
+        return findPage(spec, pageable);
+
+    }
+
+    @Override
+    public CursorPageDto<CardRespDto> getUserCardsByCursor(CardHolderListDto filter, String cursor, Sort sort, int size) {
+
+        Long userId = currentUser.getCurrentUserId();
+
+        return findByCursor(userCardsSpec(userId, filter), cursor, sort, size);
+    }
+
+    @Override
+    public SliceDto<CardRespDto> getUserCardsSlice(CardHolderListDto filter, Pageable pageable) {
+
+        Long userId = currentUser.getCurrentUserId();
+
+        return findSlice(userCardsSpec(userId, filter), pageable);
+    }
+
+    @Override
+    public Page<CardRespDto> getCardsList(CardsListDto filter, Pageable pageable) {
+
+        Specification<CreditCard> spec = cardsListSpec(filter);
+
+        return findPage(spec, pageable);
+    }
+
+    @Override
+    public CursorPageDto<CardRespDto> getCardsListByCursor(CardsListDto filter, String cursor, Sort sort, int size) {
+        return findByCursor(cardsListSpec(filter), cursor, sort, size);
+    }
+
+    @Override
+    public SliceDto<CardRespDto> getCardsListSlice(CardsListDto filter, Pageable pageable) {
+        return findSlice(cardsListSpec(filter), pageable);
+    }
+
+    /**
+     * Передаёт consumer все карты по фильтру, не держа выборку в памяти.
+     * Транзакция (и курсор БД) открыта, пока consumer пишет клиенту.
+     */
+    @Override
+    public void exportCards(CardsListDto filter, Consumer<CardRespDto> consumer) {
+        Specification<CreditCard> spec = cardsListSpec(filter);
+
+        try (Stream<CardView> cards = repository.streamAll(spec, exportFetchSize)) {
+            cards.forEach(card -> consumer.accept(CardRespDto.toDto(card, cryptoUtils)));
+        }
+    }
+
+    /**
+     * Страница списка карт: выбираются только колонки {@link CardView}.
+     */
+    private Page<CardRespDto> findPage(Specification<CreditCard> spec, Pageable pageable) {
+        return repository.findBy(spec, query -> query
+                        .as(CardView.class)
+                        .page(pageable))
+                .map(card -> CardRespDto.toDto(card, cryptoUtils));
+    }
+
+    /**
+     * Страница без COUNT(*): выбирается size + 1 строк, лишняя строка
+     * означает наличие следующей страницы.
+     */
+    private SliceDto<CardRespDto> findSlice(Specification<CreditCard> spec, Pageable pageable) {
+        return SliceDto.of(repository.findBy(spec, query -> query
+                        .as(CardView.class)
+                        .slice(pageable))
+                .map(card -> CardRespDto.toDto(card, cryptoUtils)));
+    }
+
+    /**
+     * Keyset-выборка: условие "после курсора" и LIMIT size + 1 без COUNT(*).
+     */
+    private CursorPageDto<CardRespDto> findByCursor(Specification<CreditCard> spec,
+                                                    String cursor, Sort sort, int size) {
+        CardCursor.Position position = CardCursor.position(cursor, sort);
+
+        Window<CardView> window = repository.findBy(spec, query -> query
+                .as(CardView.class)
+                .sortBy(position.sort())
+                .limit(size)
+                .scroll(position.scrollPosition()));
+
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            nextCursor = CardCursor.encode(
+                    position.sort().iterator().next(),
+                    (KeysetScrollPosition) window.positionAt(window.size() - 1));
+        }
+
+        return new CursorPageDto<>(
+                window.map(card -> CardRespDto.toDto(card, cryptoUtils)).getContent(),
+                window.size(),
+                window.hasNext(),
+                nextCursor);
+    }
+
+    private Specification<CreditCard> userCardsSpec(Long userId, CardHolderListDto filter) {
         Specification<CreditCard> spec = Specification.unrestricted();
 
         spec = spec.and(CardSpecifications.hasUserId(userId));
@@ -59,13 +200,10 @@ public class CardServiceImpl implements CardService{
             spec = spec.and(CardSpecifications.hasToBlock(filter.getToBlock()));
         }
 
-        return repository.findAll(spec, pageable).map(card -> CardRespDto.toDto(card, cryptoUtils));
-
+        return spec;
     }
 
-    @Override
-    public Page<CardRespDto> getCardsList(CardsListDto filter, Pageable pageable) {
-
+    private Specification<CreditCard> cardsListSpec(CardsListDto filter) {
         Specification<CreditCard> spec = Specification.unrestricted();
 
         if (filter.getUserId() != null) {
@@ -74,7 +212,8 @@ public class CardServiceImpl implements CardService{
 
         if (filter.getCardHolder() != null && !filter.getCardHolder().isBlank()) {
             spec = spec.and(
-                    CardSpecifications.cardHolderLike(filter.getCardHolder())
+                    CardSpecifications.cardHolderLike(filter.getCardHolder(),
+                            filter.getSearchMode() != null ? filter.getSearchMode() : SearchMode.CONTAINS)
             );
         }
 
@@ -93,13 +232,22 @@ public class CardServiceImpl implements CardService{
             spec = spec.and(CardSpecifications.hasToBlock(filter.getToBlock()));
         }
 
-        return repository.findAll(spec, pageable).map(card -> CardRespDto.toDto(card, cryptoUtils));
+        return spec;
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     @Override
     public String generate() {
-        return CardUtil.generateCardNumber();
+        return cardNumberGenerator.generate();
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Override
+    public List<String> generate(int count) {
+        if (count < 1 || count > MAX_GENERATE_COUNT) {
+            throw new InvalidRequestException("Count must be between 1 and " + MAX_GENERATE_COUNT);
+        }
+        return cardNumberGenerator.generate(count);
     }
 
     @Transactional
@@ -107,24 +255,131 @@ public class CardServiceImpl implements CardService{
     public  CardRespDto create(CardCreateDto dto) {
         User user = userService.findOne(dto.getUserId());
 
-        CreditCard newCard = CreditCard.builder()
-                .owner(user)
-                .cardHolder(user.getFirstName().toUpperCase() + " " + user.getLastName().toUpperCase())
-                .cardNumber(cryptoUtils.encrypt(dto.getCardNumber()))
-                .expiryDate(CardUtil.parseExpiryDate(dto.getExpiryDate()))
-                .balance(CardUtil.getAmountAsBigInteger(dto.getBalance()))
-                .build();
+        String cardNumberHash = cryptoUtils.hash(dto.getCardNumber());
+        if (repository.existsByCardNumberHash(cardNumberHash)) {
+            throw new ConflictException("ERROR: Card already registered: " + CardUtil.mask(dto.getCardNumber()));
+        }
+
+        CreditCard newCard = newCard(user, dto, cryptoUtils.encrypt(dto.getCardNumber()), cardNumberHash);
 
         try {
             repository.saveAndFlush(newCard);
         } catch (DataIntegrityViolationException e) {
             log.error(e.getMostSpecificCause().getMessage());
-            throw new ConflictException("ERROR: Card already registered: " + dto.getCardNumber());
+            throw new ConflictException("ERROR: Card already registered: " + CardUtil.mask(dto.getCardNumber()));
         }
+        userBalanceRepository.add(user.getId(), newCard.getBalance());
+        cardNumberGenerator.register(cardNumberHash);
 
         return CardRespDto.toDto(newCard, cryptoUtils);
     }
 
+    /**
+     * Выпуск пакета карт: владельцы читаются одним IN-запросом, занятые номера
+     * проверяются одним запросом по "слепым индексам", карты вставляются одним
+     * INSERT ... ON CONFLICT DO NOTHING (id из credit_card_seq).
+     * Дубликат или отсутствующий владелец отклоняют только свою строку — в том
+     * числе номер, выпущенный параллельным запросом уже после проверки.
+     */
+    @Transactional
+    @Override
+    public CardBatchCreateRespDto createBatch(CardBatchCreateDto dto) {
+        List<CardCreateDto> items = dto.cards();
+        int size = items.size();
+
+        Map<Long, User> owners = userService.findAllById(items.stream()
+                        .map(CardCreateDto::getUserId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        // HMAC и AES — самая дорогая часть на строку; у CryptoUtils свои Cipher/Mac на поток
+        String[] hashes = new String[size];
+        String[] encrypted = new String[size];
+        IntStream.range(0, size).parallel().forEach(i -> {
+            String number = items.get(i).getCardNumber();
+            hashes[i] = cryptoUtils.hash(number);
+            encrypted[i] = cryptoUtils.encrypt(number);
+        });
+
+        Set<String> taken = new HashSet<>(repository.findExistingHashes(Arrays.asList(hashes)));
+
+        CreditCard[] created = new CreditCard[size];
+        CardCreateResultDto.Status[] statuses = new CardCreateResultDto.Status[size];
+        for (int i = 0; i < size; i++) {
+            CardCreateDto item = items.get(i);
+            User user = owners.get(item.getUserId());
+            if (user == null) {
+                statuses[i] = CardCreateResultDto.Status.USER_NOT_FOUND;
+            } else if (!taken.add(hashes[i])) {
+                // номер уже выпущен или повторяется внутри пакета
+                statuses[i] = CardCreateResultDto.Status.DUPLICATE;
+            } else {
+                created[i] = newCard(user, item, encrypted[i], hashes[i]);
+            }
+        }
+
+        Map<String, Long> ids = repository.insertSkippingDuplicates(
+                Arrays.stream(created).filter(Objects::nonNull).toList());
+
+        Map<Long, BigInteger> balanceByUser = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            if (created[i] == null) {
+                continue;
+            }
+            Long id = ids.get(hashes[i]);
+            if (id == null) {
+                // номер выпущен параллельным запросом после проверки
+                log.warn("Card {} was registered concurrently", CardUtil.mask(items.get(i).getCardNumber()));
+                created[i] = null;
+                statuses[i] = CardCreateResultDto.Status.DUPLICATE;
+                continue;
+            }
+            created[i].setId(id);
+            statuses[i] = CardCreateResultDto.Status.CREATED;
+            balanceByUser.merge(created[i].getOwner().getId(), created[i].getBalance(), BigInteger::add);
+            cardNumberGenerator.register(hashes[i]);
+        }
+        balanceByUser.forEach(userBalanceRepository::add);
+
+        List<CardCreateResultDto> results = new ArrayList<>(size);
+        int createdCount = 0;
+        for (int i = 0; i < size; i++) {
+            CardCreateDto item = items.get(i);
+            if (created[i] != null) {
+                createdCount++;
+            }
+            results.add(new CardCreateResultDto(
+                    i,
+                    created[i] != null ? created[i].getId() : null,
+                    CardUtil.mask(item.getCardNumber()),
+                    item.getUserId(),
+                    statuses[i]));
+        }
+
+        return new CardBatchCreateRespDto(size, createdCount, size - createdCount, results);
+    }
+
+    private static CreditCard newCard(User user, CardCreateDto dto, String encryptedNumber, String cardNumberHash) {
+        return CreditCard.builder()
+                .owner(user)
+                .cardHolder(user.getFirstName().toUpperCase() + " " + user.getLastName().toUpperCase())
+                .cardNumber(encryptedNumber)
+                .cardNumberHash(cardNumberHash)
+                .expiryDate(CardUtil.parseExpiryDate(dto.getExpiryDate()))
+                .balance(CardUtil.getAmountAsBigInteger(dto.getBalance()))
+                .build();
+    }
+
+    @Override
+    public CardRespDto findByNumber(CardNumberDto dto) {
+        CreditCard card = repository.findByCardNumberHash(cryptoUtils.hash(dto.cardNumber())).orElseThrow(
+                () -> new EntityNotFoundException("Card not found with number: " + CardUtil.mask(dto.cardNumber()))
+        );
+
+        return CardRespDto.toDto(card, cryptoUtils);
+    }
+
     @Transactional
     @Override
     public CardRespDto blockRequest(Long cardId) {
@@ -143,6 +398,21 @@ public class CardServiceImpl implements CardService{
         return CardRespDto.toDto(card,  cryptoUtils);
     }
 
+    /**
+     * Перевод между своими картами. Обе карты блокируются заранее в порядке
+     * возрастания id, поэтому встречные переводы не взаимоблокируются; если БД
+     * всё же откатит транзакцию (deadlock, serialization failure), перевод
+     * повторяется в новой транзакции.
+     */
+    @Retryable(
+            retryFor = ConcurrencyFailureException.class,
+            maxAttemptsExpression = "${app.transfer.retry.max-attempts:3}",
+            backoff = @Backoff(
+                    delayExpression = "${app.transfer.retry.backoff-ms:20}",
+                    multiplier = 2,
+                    random = true
+            )
+    )
     @Transactional
     public Boolean transfer(CardTransferDto dto) {
 
@@ -150,6 +420,8 @@ public class CardServiceImpl implements CardService{
 
         BigInteger amount = CardUtil.getAmountAsBigInteger(dto.getAmount());
 
+        repository.lockInIdOrder(List.of(dto.getFromId(), dto.getToId()));
+
         int withdrawn = repository.withdraw(
                 dto.getFromId(),
                 userId,
@@ -177,9 +449,65 @@ public class CardServiceImpl implements CardService{
                     "Error transferring to Card: " + dto.getToId());
         }
 
+        transactionRepository.recordTransfer(dto.getFromId(), dto.getToId(), amount);
+
         return true;
     }
 
+    /**
+     * Пакет переводов между картами текущего пользователя за один JDBC batch.
+     * Переводы выполняются по порядку, отклонённый перевод не влияет на остальные.
+     */
+    @Retryable(
+            retryFor = ConcurrencyFailureException.class,
+            maxAttemptsExpression = "${app.transfer.retry.max-attempts:3}",
+            backoff = @Backoff(
+                    delayExpression = "${app.transfer.retry.backoff-ms:20}",
+                    multiplier = 2,
+                    random = true
+            )
+    )
+    @Transactional
+    @Override
+    public CardBatchTransferRespDto transferBatch(CardBatchTransferDto dto) {
+
+        Long userId = currentUser.getCurrentUserId();
+
+        List<CardRepositoryCustom.Transfer> transfers = dto.transfers().stream()
+                .map(t -> new CardRepositoryCustom.Transfer(
+                        t.getFromId(), t.getToId(), CardUtil.getAmountAsBigInteger(t.getAmount())))
+                .toList();
+
+        // все карты пакета блокируются заранее в общем порядке: иначе два пакета
+        // с пересекающимися картами могут взять блокировки встречно
+        repository.lockInIdOrder(transfers.stream()
+                .flatMap(t -> Stream.of(t.fromId(), t.toId()))
+                .collect(Collectors.toCollection(TreeSet::new)));
+
+        int[] counts = repository.transferBatch(userId, transfers);
+
+        List<CardTransferResultDto> results = new ArrayList<>(transfers.size());
+        int succeeded = 0;
+        for (int i = 0; i < transfers.size(); i++) {
+            CardRepositoryCustom.Transfer t = transfers.get(i);
+            boolean success = counts[i] > 0;
+            if (success) {
+                succeeded++;
+            } else {
+                log.error("Batch transfer #{} rejected: from Card: {}, to Card: {}, amount: {}",
+                        i, t.fromId(), t.toId(), t.amount());
+            }
+            results.add(new CardTransferResultDto(
+                    i,
+                    t.fromId(),
+                    t.toId(),
+                    CardUtil.fromCentsToDecimal(t.amount()).toPlainString(),
+                    success ? CardTransferResultDto.Status.SUCCESS : CardTransferResultDto.Status.REJECTED));
+        }
+
+        return new CardBatchTransferRespDto(transfers.size(), succeeded, transfers.size() - succeeded, results);
+    }
+
     @Transactional
     @Override
     public void delete(Long cardId) {
@@ -192,6 +520,9 @@ public class CardServiceImpl implements CardService{
         }
 
         repository.delete(card);
+        if (card.getUserId() != null) {
+            userBalanceRepository.add(card.getUserId(), card.getBalance().negate());
+        }
     }
 
     @Transactional
@@ -206,11 +537,73 @@ public class CardServiceImpl implements CardService{
         return CardRespDto.toDto(found, cryptoUtils);
     }
 
+    /**
+     * Одобрение заявок на блокировку одним UPDATE: в BLOCKED переходят только
+     * карты в статусах, для которых {@link CreditCard.CardStatus#canTransitionTo}
+     * разрешает такой переход. Номера карт не читаются и не расшифровываются.
+     */
+    @Transactional
+    @Override
+    public CardBlockApproveRespDto approveBlockRequests(CardBlockApproveDto dto) {
+        List<CreditCard.CardStatus> fromStatuses = Arrays.stream(CreditCard.CardStatus.values())
+                .filter(status -> status.canTransitionTo(CreditCard.CardStatus.BLOCKED))
+                .toList();
+
+        List<Long> blocked = new ArrayList<>(repository.blockRequested(fromStatuses, dto.userId(), dto.cardIds()));
+        blocked.sort(null);
+
+        log.info("Block requests approved for {} cards", blocked.size());
+        return new CardBlockApproveRespDto(blocked.size(), blocked);
+    }
+
+    /**
+     * Чтение поддерживаемой суммы из user_balance по первичному ключу
+     * вместо SUM по картам пользователя.
+     */
     @Override
     public String getTotalBalanceByUser() {
 
         Long userId = currentUser.getCurrentUserId();
-        BigInteger sum = repository.sumBalanceByUserId(userId);
+        BigInteger sum = userBalanceRepository.findById(userId)
+                .map(UserBalance::getTotal)
+                .orElse(BigInteger.ZERO);
         return CardUtil.fromCentsToDecimal(sum).toPlainString();
     }
+
+    /**
+     * Журнал операций по карте, от новых к старым, с keyset-пагинацией.
+     * Доступен владельцу карты и администратору.
+     */
+    @Override
+    public CursorPageDto<CardTransactionDto> getCardTransactions(Long cardId, String cursor, int size) {
+        Long userId = currentUser.getCurrentUserId();
+        CreditCard card = repository.findById(cardId).orElseThrow(
+                () -> new EntityNotFoundException("Card not found with id: " + cardId)
+        );
+
+        if (!currentUser.isAdmin() && !userId.equals(card.getUserId())) {
+            log.error("Card {} transactions request by user {} has been rejected",
+                    cardId, userId);
+            throw new IllegalArgumentException("You can not view transactions of Card #" + cardId);
+        }
+
+        Window<CardTransaction> window = transactionRepository.findBy(
+                CardTransactionSpecifications.hasCardId(cardId),
+                query -> query
+                        .sortBy(TransactionCursor.SORT)
+                        .limit(size)
+                        .scroll(TransactionCursor.position(cursor)));
+
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            nextCursor = TransactionCursor.encode(
+                    (KeysetScrollPosition) window.positionAt(window.size() - 1));
+        }
+
+        return new CursorPageDto<>(
+                window.map(CardTransactionDto::toDto).getContent(),
+                window.size(),
+                window.hasNext(),
+                nextCursor);
+    }
 }
@@ -0,0 +1,60 @@
+package com.example.bankcards.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Создаёт месячные партиции card_transaction заранее, на несколько месяцев
+ * вперёд (границы месяцев в UTC). Строки, для которых партиции нет, попадают в card_transaction_default,
+ * а партицию на диапазон с такими строками создать уже нельзя — поэтому
+ * проверка выполняется при старте и ежедневно.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CardTransactionPartitionMaintainer implements ApplicationRunner {
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.ledger.partitions-ahead:3}")
+    private int monthsAhead;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        ensurePartitions();
+    }
+
+    @Scheduled(cron = "${app.ledger.partition-cron:0 0 3 * * *}")
+    public void ensurePartitions() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        String name = "card_transaction_" + SUFFIX.format(month);
+        try {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name
+                    + " PARTITION OF card_transaction FOR VALUES FROM ('" + from + " 00:00:00+00')"
+                    + " TO ('" + to + " 00:00:00+00')");
+        } catch (DataAccessException ex) {
+            log.error("Can not create ledger partition {}: {}", name, ex.getMessage());
+        }
+    }
+}
@@ -22,4 +22,12 @@ public class CurrentUserService {
 
         return jwt.getClaim("userId");
     }
+
+    public boolean isAdmin() {
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+
+        return auth != null && auth.getAuthorities().stream()
+                .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+    }
 }
@@ -0,0 +1,152 @@
+package com.example.bankcards.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Хранилище ответов на запросы с заголовком Idempotency-Key.
+ * <p>
+ * Таблица idempotency_key — источник истины: ключ "захватывается" INSERT ... ON
+ * CONFLICT DO NOTHING до выполнения запроса, поэтому повтор, пришедший
+ * одновременно с оригиналом, его не выполнит. Перед таблицей — кэш завершённых
+ * ответов, ограниченный суммарным размером тел (не числом записей: ответ на
+ * пакетный запрос бывает в тысячи раз больше одиночного). Повтор отдаётся из
+ * памяти без обращения к БД. Записи старше TTL удаляются из кэша и из таблицы.
+ * <p>
+ * Захват без ответа (status IS NULL) действует только в течение lease: если
+ * экземпляр упал посреди запроса, ключ не остаётся "в процессе" на весь TTL —
+ * после lease {@link #find} его не видит, а {@link #claim} перехватывает.
+ * Lease должен быть больше времени выполнения самого долгого запроса.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    /**
+     * Сохранённый ответ; status == null — запрос ещё выполняется.
+     */
+    public record StoredResponse(String requestHash, Integer status, String contentType, byte[] body) {
+        public boolean inProgress() {
+            return status == null;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Cache<String, StoredResponse> cache;
+
+    public IdempotencyStore(JdbcTemplate jdbcTemplate,
+                            @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${app.idempotency.cache-max-size:64MB}") DataSize cacheMaxSize,
+                            @Value("${app.idempotency.in-progress-lease:2m}") Duration lease) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(cacheMaxSize.toBytes())
+                .weigher(IdempotencyStore::weigh)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Optional<StoredResponse> find(Long userId, String key) {
+        StoredResponse cached = cache.getIfPresent(cacheKey(userId, key));
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<StoredResponse> stored = jdbcTemplate.query("""
+                SELECT request_hash, status, content_type, body
+                  FROM idempotency_key
+                 WHERE user_id = ? AND idem_key = ? AND created_at > ?
+                   AND (status IS NOT NULL OR created_at > ?)
+                """,
+                (rs, i) -> new StoredResponse(
+                        rs.getString("request_hash"),
+                        (Integer) rs.getObject("status"),
+                        rs.getString("content_type"),
+                        rs.getBytes("body")),
+                userId, key, expiredBefore(), leaseExpiredBefore()
+        ).stream().findFirst();
+
+        stored.filter(r -> !r.inProgress())
+                .ifPresent(r -> cache.put(cacheKey(userId, key), r));
+        return stored;
+    }
+
+    /**
+     * Захватывает ключ перед выполнением запроса.
+     *
+     * Просроченная запись (старше TTL, ещё не удалённая) и захват с истёкшим
+     * lease перехватываются тем же запросом.
+     *
+     * @return false, если ключ уже использован (запрос выполнен или выполняется)
+     */
+    public boolean claim(Long userId, String key, String requestHash) {
+        return jdbcTemplate.update("""
+                INSERT INTO idempotency_key (user_id, idem_key, request_hash)
+                VALUES (?, ?, ?)
+                ON CONFLICT (user_id, idem_key) DO UPDATE
+                   SET request_hash = EXCLUDED.request_hash,
+                       status = NULL, content_type = NULL, body = NULL,
+                       created_at = now()
+                 WHERE idempotency_key.created_at <= ?
+                    OR (idempotency_key.status IS NULL AND idempotency_key.created_at <= ?)
+                """, userId, key, requestHash, expiredBefore(), leaseExpiredBefore()) == 1;
+    }
+
+    public void complete(Long userId, String key, StoredResponse response) {
+        jdbcTemplate.update("""
+                UPDATE idempotency_key
+                   SET status = ?, content_type = ?, body = ?
+                 WHERE user_id = ? AND idem_key = ?
+                """, response.status(), response.contentType(), response.body(), userId, key);
+        cache.put(cacheKey(userId, key), response);
+    }
+
+    /**
+     * Освобождает ключ, если запрос не выполнен: повтор с тем же ключом выполнится заново.
+     */
+    public void release(Long userId, String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_key WHERE user_id = ? AND idem_key = ? AND status IS NULL",
+                userId, key);
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval:1h}")
+    public void purgeExpired() {
+        int deleted = jdbcTemplate.update("DELETE FROM idempotency_key WHERE created_at <= ?", expiredBefore());
+        if (deleted > 0) {
+            log.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    private Timestamp expiredBefore() {
+        return Timestamp.from(Instant.now().minus(ttl));
+    }
+
+    private Timestamp leaseExpiredBefore() {
+        return Timestamp.from(Instant.now().minus(lease));
+    }
+
+    // тело ответа плюс ключ и хэш запроса; накладные расходы объектов не учитываются
+    private static int weigh(String cacheKey, StoredResponse response) {
+        int body = response.body() != null ? response.body().length : 0;
+        return body + cacheKey.length() + response.requestHash().length();
+    }
+
+    private static String cacheKey(Long userId, String key) {
+        return userId + ":" + key;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Отдельный ограниченный пул для проверки паролей (BCrypt) при логине.
+ * <p>
+ * BCrypt нагружает CPU на десятки миллисекунд, и во время массового входа
+ * он занимал бы все потоки Tomcat. Здесь число потоков и длина очереди
+ * фиксированы: при заполненной очереди запрос сразу отклоняется
+ * {@link ServiceUnavailableException} (503 + Retry-After), а не ждёт.
+ * Метрики: executor.* с тегом name=login и login.executor.rejected.
+ */
+@Component
+@Slf4j
+public class LoginExecutor implements MeterBinder, DisposableBean {
+    private static final String NAME = "login";
+
+    private final ThreadPoolExecutor executor;
+    private final Duration retryAfter;
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * @param threads число потоков; 0 — половина доступных ядер (остальное — запросам Tomcat)
+     */
+    public LoginExecutor(@Value("${app.login.threads:0}") int threads,
+                         @Value("${app.login.queue-capacity:200}") int queueCapacity,
+                         @Value("${app.login.retry-after:1s}") Duration retryAfter) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory(NAME + "-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfter = retryAfter;
+        log.info("Login executor: {} threads, queue capacity {}", poolSize, queueCapacity);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException ex) {
+            rejected.incrementAndGet();
+            throw new ServiceUnavailableException("Too many login attempts, please retry later", retryAfter);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, NAME, Tags.empty()).bindTo(registry);
+        FunctionCounter.builder("login.executor.rejected", rejected, AtomicLong::get)
+                .description("Logins rejected because the login queue was full")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.RateLimitProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Token bucket в памяти по правилам {@link RateLimitProperties}.
+ * <p>
+ * Корзина клиента — один {@link AtomicLong}: "теоретическое время прихода"
+ * следующего запроса (GCRA, эквивалент token bucket). Каждый запрос сдвигает его
+ * на period / capacity; если оно ушло вперёд больше чем на period, запас исчерпан.
+ * Проверка — один compareAndSet без блокировок и без фоновых пополнений.
+ * <p>
+ * Корзины лежат в Caffeine-кэше, ограниченном по числу ключей: корзина, к которой
+ * не обращались дольше самого длинного period, полна и удаляется без потери
+ * состояния. Лимит локален для экземпляра приложения.
+ * Метрики: rate.limit.rejected с тегом rule, rate.limit.buckets.
+ */
+@Component
+public class RateLimiter implements MeterBinder {
+    private final Ticker ticker;
+    private final Cache<String, AtomicLong> buckets;
+    private final Map<String, AtomicLong> rejected;
+
+    @Autowired
+    public RateLimiter(RateLimitProperties properties) {
+        this(properties, Ticker.systemTicker());
+    }
+
+    RateLimiter(RateLimitProperties properties, Ticker ticker) {
+        Duration idle = properties.getRules().stream()
+                .map(RateLimitProperties.Rule::getPeriod)
+                .max(Duration::compareTo)
+                .orElse(Duration.ofMinutes(1));
+
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxKeys())
+                .expireAfterAccess(idle)
+                .ticker(ticker)
+                .build();
+        this.rejected = properties.getRules().stream()
+                .collect(Collectors.toUnmodifiableMap(RateLimitProperties.Rule::getName, rule -> new AtomicLong()));
+    }
+
+    /**
+     * Забирает один запрос из корзины клиента.
+     *
+     * @param client ключ клиента, например user:42 или ip:10.0.0.1
+     * @return пусто, если запрос разрешён; иначе — через сколько повторить
+     */
+    public Optional<Duration> tryAcquire(RateLimitProperties.Rule rule, String client) {
+        long now = ticker.read();
+        long period = rule.getPeriod().toNanos();
+        long interval = period / rule.getCapacity();
+        AtomicLong tat = buckets.get(rule.getName() + ':' + client, key -> new AtomicLong(now));
+
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - now - period;
+            if (wait > 0) {
+                rejected.get(rule.getName()).incrementAndGet();
+                return Optional.of(Duration.ofNanos(wait));
+            }
+            if (tat.compareAndSet(current, next)) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        rejected.forEach((rule, counter) ->
+                FunctionCounter.builder("rate.limit.rejected", counter, AtomicLong::get)
+                        .description("Requests rejected with 429 by the rate limiter")
+                        .tag("rule", rule)
+                        .register(registry));
+        Gauge.builder("rate.limit.buckets", buckets, Cache::estimatedSize)
+                .description("Clients tracked by the rate limiter")
+                .register(registry);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.util.CryptoUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Одноразовые (ротируемые) refresh-токены.
+ * <p>
+ * Токен — 256 случайных бит в base64url; в таблице refresh_token хранится только
+ * его HMAC ({@link CryptoUtils#hash}), поэтому утечка таблицы не даёт рабочих токенов.
+ * Все токены одного логина образуют "семейство" (family_id, он же sid в JWT).
+ * Обмен токена — один UPDATE по первичному ключу, помечающий его использованным
+ * ({@link #consume}), и выпуск следующего токена семейства ({@link #issue(Long, String)});
+ * повторное предъявление уже использованного токена означает, что его украли,
+ * и всё семейство отзывается.
+ */
+@Component
+@Slf4j
+public class RefreshTokenService {
+    private static final int TOKEN_BYTES = 32;
+
+    /**
+     * Выданный токен и семейство (сессия), к которому он относится.
+     */
+    public record Issued(Long userId, String token, String sessionId) {}
+
+    /**
+     * Использованный токен: владелец и семейство, в котором выпускается следующий.
+     */
+    public record Consumed(Long userId, String sessionId) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CryptoUtils cryptoUtils;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(JdbcTemplate jdbcTemplate,
+                               CryptoUtils cryptoUtils,
+                               @Value("${app.jwt.refresh-ttl:30d}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cryptoUtils = cryptoUtils;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Новое семейство токенов (при логине).
+     */
+    public Issued issue(Long userId) {
+        return insert(userId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Следующий токен семейства (после {@link #consume}).
+     */
+    public Issued issue(Long userId, String sessionId) {
+        return insert(userId, sessionId);
+    }
+
+    /**
+     * Помечает токен использованным. Новый токен не выпускается: вызывающий
+     * сначала проверяет владельца, затем вызывает {@link #issue(Long, String)}.
+     *
+     * @throws BadCredentialsException если токен неизвестен, истёк или уже использован
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public Consumed consume(String token) {
+        String hash = cryptoUtils.hash(token);
+
+        List<Consumed> consumed = jdbcTemplate.query("""
+                UPDATE refresh_token
+                   SET used_at = now()
+                 WHERE token_hash = ? AND used_at IS NULL AND expires_at > now()
+                RETURNING user_id, family_id
+                """,
+                (rs, i) -> new Consumed(rs.getLong("user_id"), rs.getString("family_id")),
+                hash);
+
+        if (consumed.isEmpty()) {
+            revokeFamilyIfReused(hash);
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        return consumed.get(0);
+    }
+
+    public void revokeSession(String sessionId) {
+        jdbcTemplate.update("DELETE FROM refresh_token WHERE family_id = ?", sessionId);
+    }
+
+    public void revokeAllForUser(Long userId) {
+        jdbcTemplate.update("DELETE FROM refresh_token WHERE user_id = ?", userId);
+    }
+
+    /**
+     * Использованные токены хранятся до истечения срока: по ним распознаётся повтор.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-purge-interval:1h}")
+    public void purgeExpired() {
+        int deleted = jdbcTemplate.update("DELETE FROM refresh_token WHERE expires_at <= now()");
+        if (deleted > 0) {
+            log.info("Purged {} expired refresh tokens", deleted);
+        }
+    }
+
+    private void revokeFamilyIfReused(String hash) {
+        int revoked = jdbcTemplate.update("""
+                DELETE FROM refresh_token
+                 WHERE family_id = (SELECT family_id FROM refresh_token
+                                     WHERE token_hash = ? AND used_at IS NOT NULL)
+                """, hash);
+        if (revoked > 0) {
+            log.warn("Refresh token reuse detected, revoked {} tokens of the session", revoked);
+        }
+    }
+
+    private Issued insert(Long userId, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        jdbcTemplate.update("""
+                INSERT INTO refresh_token (token_hash, user_id, family_id, expires_at)
+                VALUES (?, ?, ?, ?)
+                """, cryptoUtils.hash(token), userId, familyId, Timestamp.from(Instant.now().plus(ttl)));
+        return new Issued(userId, token, familyId);
+    }
+}
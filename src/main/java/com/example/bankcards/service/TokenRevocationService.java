@@ -0,0 +1,122 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.security.TokenRevocationList;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Отзыв access-токенов.
+ * <p>
+ * Таблицы revoked_token (по jti) и user_token_cutoff (все токены пользователя до
+ * момента отзыва) — источник истины и способ донести отзыв до всех экземпляров
+ * приложения. Запросы проверяются только по {@link TokenRevocationList} в памяти:
+ * локальный отзыв попадает в него сразу, отзывы с других экземпляров — при
+ * периодической синхронизации (не позже app.jwt.revocation.refresh-interval).
+ */
+@Component
+@Slf4j
+public class TokenRevocationService implements ApplicationRunner {
+    private static final String USER_ID_CLAIM = "userId";
+
+    // строки коммитятся не в порядке revoked_at: перечитываем с запасом
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration tokenTtl;
+    private final TokenRevocationList revocationList = new TokenRevocationList();
+
+    private volatile Instant syncedUpTo = Instant.EPOCH;
+
+    public TokenRevocationService(JdbcTemplate jdbcTemplate,
+                                  @Value("${app.jwt.expiration-time-min}") long tokenTtlMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tokenTtl = Duration.ofMinutes(tokenTtlMinutes);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        refresh();
+    }
+
+    public boolean isRevoked(Jwt jwt) {
+        return revocationList.isRevoked(jwt.getId(), jwt.getClaim(USER_ID_CLAIM), jwt.getIssuedAt());
+    }
+
+    /**
+     * Отзывает один токен (logout). Токен без jti (выпущен до его появления)
+     * отдельно отозвать нельзя — отзываются все токены пользователя.
+     */
+    public void revoke(Jwt jwt) {
+        Long userId = jwt.getClaim(USER_ID_CLAIM);
+        if (jwt.getId() == null) {
+            revokeAllForUser(userId);
+            return;
+        }
+        Instant expiresAt = jwt.getExpiresAt() != null ? jwt.getExpiresAt() : Instant.now().plus(tokenTtl);
+        jdbcTemplate.update("""
+                INSERT INTO revoked_token (jti, user_id, expires_at)
+                VALUES (?, ?, ?)
+                ON CONFLICT DO NOTHING
+                """, jwt.getId(), userId, Timestamp.from(expiresAt));
+        revocationList.revoke(jwt.getId(), expiresAt);
+    }
+
+    /**
+     * Отзывает все токены пользователя, выпущенные до текущего момента.
+     */
+    public void revokeAllForUser(Long userId) {
+        Instant now = Instant.now();
+        jdbcTemplate.update("""
+                INSERT INTO user_token_cutoff (user_id, revoked_before)
+                VALUES (?, ?)
+                ON CONFLICT (user_id) DO UPDATE
+                   SET revoked_before = GREATEST(user_token_cutoff.revoked_before, EXCLUDED.revoked_before),
+                       updated_at = now()
+                """, userId, Timestamp.from(now));
+        revocationList.revokeUserBefore(userId, now);
+        log.info("All tokens revoked for user {}", userId);
+    }
+
+    /**
+     * Подтягивает отзывы, сделанные другими экземплярами приложения.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.refresh-interval:5s}",
+            initialDelayString = "${app.jwt.revocation.refresh-interval:5s}")
+    public void refresh() {
+        Instant now = Instant.now();
+        Timestamp since = Timestamp.from(syncedUpTo.minus(SYNC_OVERLAP));
+
+        jdbcTemplate.query("SELECT jti, expires_at FROM revoked_token WHERE revoked_at > ? AND expires_at > ?",
+                (RowCallbackHandler) rs -> revocationList.revoke(rs.getString("jti"), rs.getTimestamp("expires_at").toInstant()),
+                since, Timestamp.from(now));
+        jdbcTemplate.query("SELECT user_id, revoked_before FROM user_token_cutoff WHERE updated_at > ?",
+                (RowCallbackHandler) rs -> revocationList.revokeUserBefore(rs.getLong("user_id"),
+                        rs.getTimestamp("revoked_before").toInstant()),
+                since);
+
+        syncedUpTo = now;
+        revocationList.purgeExpired(now, tokenTtl);
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.purge-interval:1h}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        int tokens = jdbcTemplate.update("DELETE FROM revoked_token WHERE expires_at <= ?", Timestamp.from(now));
+        int cutoffs = jdbcTemplate.update("DELETE FROM user_token_cutoff WHERE revoked_before <= ?",
+                Timestamp.from(now.minus(tokenTtl)));
+        if (tokens + cutoffs > 0) {
+            log.info("Purged {} revoked tokens and {} user cutoffs", tokens, cutoffs);
+        }
+    }
+}
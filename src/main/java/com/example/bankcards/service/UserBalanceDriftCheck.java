@@ -0,0 +1,61 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.repository.UserBalanceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Сверка user_balance с суммой балансов карт.
+ * Количество пользователей с расхождением публикуется в метрике
+ * card.user-balance.drift; при app.user-balance.repair-drift=true сумма
+ * пересчитывается под блокировкой строки user_balance.
+ */
+@Component
+@Slf4j
+public class UserBalanceDriftCheck {
+
+    private final UserBalanceRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean repair;
+    private final AtomicInteger drifted = new AtomicInteger();
+    private final Counter repaired;
+
+    public UserBalanceDriftCheck(UserBalanceRepository repository,
+                                 TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.user-balance.repair-drift:false}") boolean repair) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.repair = repair;
+        meterRegistry.gauge("card.user-balance.drift", drifted);
+        this.repaired = meterRegistry.counter("card.user-balance.repaired");
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.user-balance.drift-check-interval:1h}",
+            fixedDelayString = "${app.user-balance.drift-check-interval:1h}"
+    )
+    public void check() {
+        List<UserBalanceRepository.Drift> drift = repository.findDrift();
+        drifted.set(drift.size());
+
+        for (UserBalanceRepository.Drift d : drift) {
+            log.error("User {} balance drift: stored {}, actual {}", d.getUserId(), d.getStored(), d.getActual());
+            if (repair) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    repository.lockByUserId(d.getUserId());
+                    repository.recalculate(d.getUserId());
+                });
+                repaired.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Кэш пользователей по id и email перед {@link UserRepository}: снимает запрос
+ * к users с каждого логина и с каждого выпуска карты.
+ * <p>
+ * В кэше лежат отсоединённые копии без коллекции карт — их нельзя менять
+ * и нельзя передавать в merge. Записи вытесняются по размеру и по TTL
+ * (ограничивает устаревание, если пользователь изменён в обход сервиса),
+ * а при изменении пользователя — явно через {@link #evict}.
+ * Метрики: cache.gets (hit/miss), cache.evictions, cache.size с тегом cache=users.by-id / users.by-email.
+ */
+@Component
+public class UserCache implements MeterBinder {
+    private final UserRepository repository;
+    private final Cache<Long, User> byId;
+    private final Cache<String, User> byEmail;
+
+    public UserCache(UserRepository repository,
+                     @Value("${app.user-cache.max-size:10000}") long maxSize,
+                     @Value("${app.user-cache.ttl:5m}") Duration ttl) {
+        this.repository = repository;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.byEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byId, "users.by-id");
+        CaffeineCacheMetrics.monitor(registry, byEmail, "users.by-email");
+    }
+
+    public Optional<User> findById(Long userId) {
+        // отсутствующий пользователь не кэшируется: loader вернёт null
+        return Optional.ofNullable(byId.get(userId, id -> repository.findById(id)
+                .map(UserCache::snapshot)
+                .orElse(null)));
+    }
+
+    public Optional<User> findByEmail(String email) {
+        return Optional.ofNullable(byEmail.get(email, key -> repository.findByEmail(key)
+                .map(UserCache::snapshot)
+                .orElse(null)));
+    }
+
+    /**
+     * Удаляет пользователя из кэша. Внутри транзакции — после коммита: иначе
+     * параллельный запрос успел бы снова закэшировать ещё не изменённую строку.
+     *
+     * @param emails все email пользователя, которые могли попасть в кэш (старый и новый)
+     */
+    public void evict(Long userId, String... emails) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doEvict(userId, emails);
+                }
+            });
+        } else {
+            doEvict(userId, emails);
+        }
+    }
+
+    public void invalidateAll() {
+        byId.invalidateAll();
+        byEmail.invalidateAll();
+    }
+
+    private void doEvict(Long userId, String... emails) {
+        if (userId != null) {
+            byId.invalidate(userId);
+        }
+        Stream.of(emails).filter(Objects::nonNull).forEach(byEmail::invalidate);
+    }
+
+    private static User snapshot(User user) {
+        return User.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .password(user.getPassword())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .role(user.getRole())
+                .build();
+    }
+}
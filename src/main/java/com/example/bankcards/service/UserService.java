@@ -1,5 +1,6 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.SliceDto;
 import com.example.bankcards.dto.UserFilterDto;
 import com.example.bankcards.dto.UserRespDto;
 import com.example.bankcards.dto.UserUpdateDto;
@@ -7,8 +8,15 @@ import com.example.bankcards.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface UserService {
     Page<UserRespDto> findAll(UserFilterDto filter, Pageable pageable);
+    SliceDto<UserRespDto> findSlice(UserFilterDto filter, Pageable pageable);
     User findOne(Long userId);
+
+    void revokeTokens(Long userId);
+    List<User> findAllById(Collection<Long> userIds);
     User update(Long userId, UserUpdateDto dto);
 }
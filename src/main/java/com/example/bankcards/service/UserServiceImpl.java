@@ -1,5 +1,6 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.SliceDto;
 import com.example.bankcards.dto.UserFilterDto;
 import com.example.bankcards.dto.UserRespDto;
 import com.example.bankcards.dto.UserUpdateDto;
@@ -7,6 +8,7 @@ import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.ConflictException;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.repository.UserSpecifications;
+import com.example.bankcards.util.SearchMode;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -16,6 +18,8 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -23,25 +27,42 @@ import java.util.Optional;
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
     private final UserRepository repository;
+    private final UserCache userCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
 
     @Override
     public Page<UserRespDto> findAll(UserFilterDto filter, Pageable pageable) {
+        // если фильтров нет → вернутся все пользователи
+        return repository.findAll(filterSpec(filter), pageable).map(UserRespDto::toDto);
+    }
+
+    /**
+     * Страница без COUNT(*): hasNext определяется выборкой size + 1 строк.
+     */
+    @Override
+    public SliceDto<UserRespDto> findSlice(UserFilterDto filter, Pageable pageable) {
+        return SliceDto.of(repository.findBy(filterSpec(filter), query -> query.slice(pageable))
+                .map(UserRespDto::toDto));
+    }
 
+    private Specification<User> filterSpec(UserFilterDto filter) {
         Specification<User> specification = Specification.unrestricted();
+        SearchMode mode = filter.searchMode() != null ? filter.searchMode() : SearchMode.CONTAINS;
 
         if (filter.firstName() != null && !filter.firstName().isBlank()) {
             specification = specification.and(
-                    UserSpecifications.firstNameLike(filter.firstName()));
+                    UserSpecifications.firstNameLike(filter.firstName(), mode));
         }
 
         if (filter.lastName() != null && !filter.lastName().isBlank()) {
             specification = specification.and(
-                    UserSpecifications.lastNameLike(filter.lastName()));
+                    UserSpecifications.lastNameLike(filter.lastName(), mode));
         }
 
         if (filter.email() != null && !filter.email().isBlank()) {
             specification = specification.and(
-                    UserSpecifications.emailLike(filter.email()));
+                    UserSpecifications.emailLike(filter.email(), mode));
         }
 
         if (filter.role() != null) {
@@ -49,24 +70,48 @@ public class UserServiceImpl implements UserService {
                     UserSpecifications.hasRole(filter.role()));
         }
 
-        // если specification = null → вернутся все пользователи
-        return repository.findAll(specification, pageable).map(UserRespDto::toDto);
+        return specification;
     }
 
+    /**
+     * Пользователь из {@link UserCache}: отсоединённая копия, изменять её нельзя.
+     */
     @Override
     public User findOne(Long userId) {
-        return repository.findById(userId).orElseThrow(
+        return userCache.findById(userId).orElseThrow(
                 () -> new EntityNotFoundException("User not found with " +
                         "id: " + userId)
         );
     }
 
+    /**
+     * Отзывает все выданные пользователю токены, включая refresh (например, при
+     * компрометации или смене роли): запросы с ними получат 401 до повторного логина.
+     */
+    @Override
+    @Transactional
+    public void revokeTokens(Long userId) {
+        findOne(userId);
+        tokenRevocationService.revokeAllForUser(userId);
+        refreshTokenService.revokeAllForUser(userId);
+    }
+
+    /**
+     * Пользователи по списку id одним запросом (WHERE id IN ...);
+     * отсутствующие id в результат не попадают.
+     */
+    @Override
+    public List<User> findAllById(Collection<Long> userIds) {
+        return repository.findAllById(userIds);
+    }
+
     @Override
     @Transactional
     public User update(Long userId, UserUpdateDto dto) {
 
         User user = repository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
+        String previousEmail = user.getEmail();
 
         Optional.ofNullable(dto.getEmail())
                     .ifPresent(user::setEmail);
@@ -84,6 +129,7 @@ public class UserServiceImpl implements UserService {
         } catch (DataIntegrityViolationException ex) {
             throw new ConflictException("Email already exists: " + dto.getEmail());
         }
+        userCache.evict(userId, previousEmail, user.getEmail());
 
         return user;
     }
@@ -0,0 +1,89 @@
+package com.example.bankcards.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Потокобезопасный фильтр Блума без блокировок: биты хранятся в
+ * {@link AtomicLongArray}, установка бита — CAS по слову.
+ * <p>
+ * Ключ задаётся двумя 64-битными хешами (например, частями HMAC), из которых
+ * по схеме двойного хеширования (h1 + i * h2) получаются k позиций.
+ * {@link #mightContain} не даёт ложноотрицательных ответов; ложноположительные —
+ * с вероятностью около заданной fpp при числе вставок до expectedInsertions.
+ */
+public final class BloomFilter {
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashFunctions;
+
+    private BloomFilter(long bitSize, int hashFunctions) {
+        int wordCount = Math.toIntExact((bitSize + 63) / 64);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitSize = (long) wordCount * 64;
+        this.hashFunctions = hashFunctions;
+    }
+
+    public static BloomFilter create(long expectedInsertions, double fpp) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be positive");
+        }
+        if (fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("fpp must be in (0, 1)");
+        }
+        // m = -n ln p / (ln 2)^2, k = m / n * ln 2
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int k = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+        return new BloomFilter(bits, k);
+    }
+
+    /**
+     * @return true, если хотя бы один бит был установлен этим вызовом
+     * (ключ, скорее всего, встретился впервые)
+     */
+    public boolean put(long h1, long h2) {
+        boolean changed = false;
+        long combined = h1;
+        for (int i = 0; i < hashFunctions; i++) {
+            changed |= setBit(index(combined));
+            combined += h2;
+        }
+        return changed;
+    }
+
+    public boolean mightContain(long h1, long h2) {
+        long combined = h1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = index(combined);
+            if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+            combined += h2;
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return bitSize;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    private long index(long combined) {
+        return (combined & Long.MAX_VALUE) % bitSize;
+    }
+
+    private boolean setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = words.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(word, current, current | mask));
+        return true;
+    }
+}
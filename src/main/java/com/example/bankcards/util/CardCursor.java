@@ -0,0 +1,103 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.exception.InvalidRequestException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Непрозрачный курсор для keyset-пагинации списка карт.
+ * Кодирует ключ сортировки, направление и значения (ключ, id) последней
+ * строки страницы в строку base64url.
+ */
+public final class CardCursor {
+    private static final String ID = "id";
+    private static final String SEPARATOR = "|";
+
+    // Поля, по которым разрешена сортировка, и парсеры их значений из курсора
+    private static final Map<String, Function<String, Object>> SORT_KEYS = Map.of(
+            ID, Long::valueOf,
+            "cardHolder", value -> value,
+            "expiryDate", LocalDate::parse,
+            "balance", BigInteger::new
+    );
+
+    private CardCursor() {}
+
+    /**
+     * Сортировка и позиция, с которой продолжается выборка.
+     */
+    public record Position(Sort sort, KeysetScrollPosition scrollPosition) {}
+
+    /**
+     * Проверяет запрошенную сортировку: допускается не более одного поля из
+     * разрешённого списка. Без сортировки используется "id ASC".
+     */
+    public static Sort.Order sortOrder(Sort sort) {
+        if (sort == null || sort.isUnsorted()) {
+            return Sort.Order.asc(ID);
+        }
+        if (sort.stream().count() > 1) {
+            throw new InvalidRequestException("Cursor pagination supports a single sort property");
+        }
+        Sort.Order order = sort.iterator().next();
+        if (!SORT_KEYS.containsKey(order.getProperty())) {
+            throw new InvalidRequestException("Cursor pagination does not support sort by: "
+                    + order.getProperty() + ". Allowed: " + SORT_KEYS.keySet());
+        }
+        return order;
+    }
+
+    /**
+     * Начальная позиция (если курсор не передан) или позиция из курсора.
+     */
+    public static Position position(String cursor, Sort requested) {
+        if (cursor == null || cursor.isBlank()) {
+            return new Position(Sort.by(sortOrder(requested)), ScrollPosition.keyset());
+        }
+        return decode(cursor);
+    }
+
+    public static String encode(Sort.Order order, KeysetScrollPosition position) {
+        Map<String, Object> keys = position.getKeys();
+        StringBuilder sb = new StringBuilder()
+                .append(order.getProperty()).append(SEPARATOR)
+                .append(order.getDirection().name()).append(SEPARATOR)
+                .append(keys.get(ID));
+        if (!ID.equals(order.getProperty())) {
+            sb.append(SEPARATOR).append(keys.get(order.getProperty()));
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Position decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // значение ключа сортировки последним: split с лимитом сохранит его целиком
+            String[] parts = raw.split("\\" + SEPARATOR, 4);
+
+            String property = parts[0];
+            Sort.Direction direction = Sort.Direction.valueOf(parts[1]);
+            Sort.Order order = sortOrder(Sort.by(direction, property));
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            if (!ID.equals(property)) {
+                keys.put(property, SORT_KEYS.get(property).apply(parts[3]));
+            }
+            keys.put(ID, Long.valueOf(parts[2]));
+
+            return new Position(Sort.by(order), ScrollPosition.forward(keys));
+        } catch (RuntimeException e) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
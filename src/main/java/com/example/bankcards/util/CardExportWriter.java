@@ -0,0 +1,99 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.dto.CardRespDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Построчная запись карт в поток выгрузки. Номер карты маскируется так же,
+ * как в ответах API: в NDJSON через {@link Mask}, в CSV через {@link CardUtil#mask}.
+ * Строки копятся в буфере и уходят клиенту порциями, без flush на каждую строку.
+ */
+public final class CardExportWriter implements Flushable {
+    private static final String CSV_HEADER = "id,cardHolder,cardNumber,expiryDate,status,toBlock,balance,userId";
+
+    private final ExportFormat format;
+    private final Writer writer;
+    private final JsonGenerator generator;
+    private final ObjectWriter json;
+
+    public CardExportWriter(ExportFormat format, OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        if (format == ExportFormat.NDJSON) {
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            // строки разделяются '\n', а не пробелом между корневыми значениями
+            this.generator.setRootValueSeparator(null);
+            this.json = objectMapper.writerFor(CardRespDto.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        } else {
+            this.generator = null;
+            this.json = null;
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+    }
+
+    public void write(CardRespDto card) {
+        try {
+            if (format == ExportFormat.NDJSON) {
+                json.writeValue(generator, card);
+                generator.writeRaw('\n');
+            } else {
+                writeCsv(card);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (generator != null) {
+            generator.flush();
+        }
+        writer.flush();
+    }
+
+    private void writeCsv(CardRespDto card) throws IOException {
+        writer.write(String.valueOf(card.getId()));
+        writer.write(',');
+        writer.write(csvField(card.getCardHolder()));
+        writer.write(',');
+        writer.write(csvField(CardUtil.mask(card.getCardNumber())));
+        writer.write(',');
+        writer.write(csvField(card.getExpiryDate()));
+        writer.write(',');
+        writer.write(card.getStatus() != null ? card.getStatus().name() : "");
+        writer.write(',');
+        writer.write(card.getToBlock() != null ? card.getToBlock().toString() : "");
+        writer.write(',');
+        writer.write(card.getBalance() != null ? card.getBalance().toPlainString() : "");
+        writer.write(',');
+        writer.write(card.getUserId() != null ? card.getUserId().toString() : "");
+        writer.write('\n');
+    }
+
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -7,11 +7,10 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class CardUtil {
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("MM/yy");
-    private static final Random RANDOM = new Random();
 
     // Пример BIN (Bank Identification Number) — VISA: 400000
     private static final String BIN = "400000";
@@ -61,9 +60,11 @@ public class CardUtil {
     public static String generateCardNumber() {
         StringBuilder cardNumber = new StringBuilder(BIN);
 
-        // Случайные цифры до 15 символа (всего 15, потому что 16-я будет контрольной)
+        // Случайные цифры до 15 символа (всего 15, потому что 16-я будет контрольной).
+        // ThreadLocalRandom: у каждого потока свой генератор, без общего CAS-состояния как у Random
+        ThreadLocalRandom random = ThreadLocalRandom.current();
         while (cardNumber.length() < 15) {
-            cardNumber.append(RANDOM.nextInt(10));
+            cardNumber.append(random.nextInt(10));
         }
 
         // Расчёт контрольной цифры по алгоритму Луна
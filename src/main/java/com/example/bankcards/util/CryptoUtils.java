@@ -4,46 +4,108 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.Cipher;
+import javax.crypto.Mac;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.util.Base64;
+import java.util.HexFormat;
 
+/**
+ * Шифрование номеров карт (AES/CBC) и их "слепой индекс" (HMAC-SHA256).
+ * <p>
+ * Ключи собираются один раз при создании бина. {@link Cipher} и {@link Mac}
+ * не потокобезопасны, поэтому у каждого потока свои экземпляры, которые
+ * инициализируются один раз и переиспользуются: после doFinal объект
+ * возвращается в состояние после init.
+ */
 @Component
 public class CryptoUtils {
     private static final String ALGORITHM = "AES/CBC/PKCS5Padding";
-    @Value("${app.crypto.key}")
-    private String secret_key;
-    @Value("${app.crypto.vector}")
-    private String init_vector;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec secretKey;
+    private final IvParameterSpec initVector;
+    private final SecretKeySpec hmacKey;
+
+    private final ThreadLocal<Cipher> encryptCipher;
+    private final ThreadLocal<Cipher> decryptCipher;
+    private final ThreadLocal<Mac> mac;
+
+    public CryptoUtils(@Value("${app.crypto.key}") String secretKey,
+                       @Value("${app.crypto.vector}") String initVector,
+                       @Value("${app.crypto.hmac-key}") String hmacKey) {
+        this.secretKey = new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), "AES");
+        this.initVector = new IvParameterSpec(initVector.getBytes(StandardCharsets.UTF_8));
+        this.hmacKey = new SecretKeySpec(hmacKey.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+
+        this.encryptCipher = ThreadLocal.withInitial(() -> newCipher(Cipher.ENCRYPT_MODE));
+        this.decryptCipher = ThreadLocal.withInitial(() -> newCipher(Cipher.DECRYPT_MODE));
+        this.mac = ThreadLocal.withInitial(this::newMac);
+
+        // некорректные ключи должны ронять старт приложения, а не первый запрос
+        encryptCipher.get();
+        mac.get();
+    }
 
     public String encrypt(String value) {
-        try {
-            IvParameterSpec iv = new IvParameterSpec(init_vector.getBytes());
-            SecretKeySpec skeySpec = new SecretKeySpec(secret_key.getBytes(),
-                    "AES");
+        return Base64.getEncoder().encodeToString(encrypt(value.getBytes(StandardCharsets.UTF_8)));
+    }
 
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            cipher.init(Cipher.ENCRYPT_MODE, skeySpec, iv);
+    public String decrypt(String encrypted) {
+        return new String(decrypt(Base64.getDecoder().decode(encrypted)), StandardCharsets.UTF_8);
+    }
 
-            byte[] encrypted = cipher.doFinal(value.getBytes());
-            return Base64.getEncoder().encodeToString(encrypted);
-        } catch (Exception ex) {
+    public byte[] encrypt(byte[] value) {
+        try {
+            return encryptCipher.get().doFinal(value);
+        } catch (GeneralSecurityException ex) {
+            // после ошибки состояние Cipher не определено — создадим новый
+            encryptCipher.remove();
             throw new RuntimeException("Error encrypting", ex);
         }
     }
 
-    public String decrypt(String encrypted) {
+    public byte[] decrypt(byte[] encrypted) {
         try {
-            IvParameterSpec iv = new IvParameterSpec(init_vector.getBytes());
-            SecretKeySpec skeySpec = new SecretKeySpec(secret_key.getBytes(), "AES");
+            return decryptCipher.get().doFinal(encrypted);
+        } catch (GeneralSecurityException ex) {
+            decryptCipher.remove();
+            throw new RuntimeException("Error decrypting", ex);
+        }
+    }
+
+    /**
+     * Детерминированный "слепой индекс" номера карты: HMAC-SHA256 в hex.
+     * Позволяет искать карту по номеру и проверять дубликаты по индексу,
+     * не расшифровывая строки и не завися от IV шифрования.
+     */
+    public String hash(String value) {
+        return HexFormat.of().formatHex(hash(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public byte[] hash(byte[] value) {
+        return mac.get().doFinal(value);
+    }
 
+    private Cipher newCipher(int mode) {
+        try {
             Cipher cipher = Cipher.getInstance(ALGORITHM);
-            cipher.init(Cipher.DECRYPT_MODE, skeySpec, iv);
+            cipher.init(mode, secretKey, initVector);
+            return cipher;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Error initializing " + ALGORITHM, ex);
+        }
+    }
 
-            byte[] original = cipher.doFinal(Base64.getDecoder().decode(encrypted));
-            return new String(original);
-        } catch (Exception ex) {
-            throw new RuntimeException("Error decrypting", ex);
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(HMAC_ALGORITHM);
+            instance.init(hmacKey);
+            return instance;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Error initializing " + HMAC_ALGORITHM, ex);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.example.bankcards.util;
+
+/**
+ * Формат потоковой выгрузки списка карт.
+ */
+public enum ExportFormat {
+    /**
+     * Один JSON-объект CardRespDto на строку.
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /**
+     * CSV (RFC 4180) с заголовком.
+     */
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+}
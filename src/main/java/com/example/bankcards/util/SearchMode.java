@@ -0,0 +1,29 @@
+package com.example.bankcards.util;
+
+/**
+ * Режим текстового поиска в фильтрах списков.
+ */
+public enum SearchMode {
+    /**
+     * Подстрока: lower(col) LIKE '%x%', обслуживается GIN-индексом pg_trgm
+     * (для 3 и более символов).
+     */
+    CONTAINS,
+
+    /**
+     * Префикс: lower(col) LIKE 'x%', обслуживается B-tree индексом
+     * lower(col) text_pattern_ops.
+     */
+    PREFIX;
+
+    /**
+     * Шаблон LIKE для значения; спецсимволы LIKE в значении экранируются '\'.
+     */
+    public String pattern(String value) {
+        String escaped = value.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return this == PREFIX ? escaped + "%" : "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.exception.InvalidRequestException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Непрозрачный курсор для keyset-пагинации журнала операций по карте.
+ * Порядок фиксирован — от новых к старым (createdAt DESC, id DESC),
+ * что совпадает с индексом (card_id, created_at, id).
+ */
+public final class TransactionCursor {
+    private static final String CREATED_AT = "createdAt";
+    private static final String ID = "id";
+    private static final String SEPARATOR = "|";
+
+    public static final Sort SORT = Sort.by(Sort.Order.desc(CREATED_AT), Sort.Order.desc(ID));
+
+    private TransactionCursor() {}
+
+    /**
+     * Начальная позиция (если курсор не передан) или позиция из курсора.
+     */
+    public static KeysetScrollPosition position(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        return decode(cursor);
+    }
+
+    public static String encode(KeysetScrollPosition position) {
+        Map<String, Object> keys = position.getKeys();
+        String raw = keys.get(CREATED_AT) + SEPARATOR + keys.get(ID);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetScrollPosition decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 2);
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(CREATED_AT, Instant.parse(parts[0]));
+            keys.put(ID, Long.valueOf(parts[1]));
+
+            return ScrollPosition.forward(keys);
+        } catch (RuntimeException e) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.bankcards.util.swagger;
+
+import com.example.bankcards.dto.CardRespDto;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "CardSliceResponse")
+public class CardSliceResponse extends SliceResponse<CardRespDto> {
+}
@@ -0,0 +1,8 @@
+package com.example.bankcards.util.swagger;
+
+import com.example.bankcards.dto.CardTransactionDto;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "CardTransactionCursorPageResponse")
+public class CardTransactionCursorPageResponse extends CursorPageResponse<CardTransactionDto> {
+}
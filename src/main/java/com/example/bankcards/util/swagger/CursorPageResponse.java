@@ -0,0 +1,22 @@
+package com.example.bankcards.util.swagger;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "CursorPageResponse", description = "Keyset pagination (without total count)")
+public class CursorPageResponse<T> {
+
+    @Schema(description = "Page content")
+    public List<T> content;
+
+    @Schema(example = "10")
+    public int size;
+
+    @Schema(example = "true")
+    public boolean hasNext;
+
+    @Schema(description = "Opaque cursor of the next page (null on the last page)",
+            example = "aWR8QVNDfDEw")
+    public String nextCursor;
+}
@@ -2,7 +2,7 @@ package com.example.bankcards.util.swagger;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 
-@Schema(name = "PageMeta", description = "Pagination metadata")
+@Schema(name = "PageMeta", description = "Pagination metadata (requires a COUNT query)")
 public class PageMeta {
 
     @Schema(example = "10")
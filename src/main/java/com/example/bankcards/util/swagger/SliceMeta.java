@@ -0,0 +1,16 @@
+package com.example.bankcards.util.swagger;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "SliceMeta", description = "Pagination metadata without total count")
+public class SliceMeta {
+
+    @Schema(example = "10")
+    public int size;
+
+    @Schema(example = "0")
+    public int number;
+
+    @Schema(example = "true")
+    public boolean hasNext;
+}
@@ -0,0 +1,15 @@
+package com.example.bankcards.util.swagger;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "SliceResponse", description = "Page without total count")
+public class SliceResponse<T> {
+
+    @Schema(description = "Page content")
+    public List<T> content;
+
+    @Schema(description = "Pagination info")
+    public SliceMeta page;
+}
@@ -0,0 +1,8 @@
+package com.example.bankcards.util.swagger;
+
+import com.example.bankcards.dto.UserRespDto;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "UserSliceResponse")
+public class UserSliceResponse extends SliceResponse<UserRespDto> {
+}
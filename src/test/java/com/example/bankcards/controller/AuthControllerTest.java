@@ -1,12 +1,15 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.RefreshTokenDto;
 import com.example.bankcards.dto.UserLoginDto;
 import com.example.bankcards.dto.UserLoginRespDto;
 import com.example.bankcards.dto.UserRegisterDto;
 import com.example.bankcards.dto.UserRespDto;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.ServiceUnavailableException;
 import com.example.bankcards.security.SecurityConfig;
 import com.example.bankcards.service.AuthService;
+import com.example.bankcards.service.TokenRevocationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,9 +17,16 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -30,6 +40,9 @@ public class AuthControllerTest {
     @MockitoBean
     private AuthService authService;
 
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -39,20 +52,102 @@ public class AuthControllerTest {
         dto.setEmail("email@email.com");
         dto.setPassword("password");
 
-        UserLoginRespDto resp = new UserLoginRespDto(1L, "Token");
+        UserLoginRespDto resp = new UserLoginRespDto(1L, "Token", "Refresh");
 
-        when(authService.login(dto)).thenReturn(resp);
+        when(authService.loginAsync(dto)).thenReturn(CompletableFuture.completedFuture(resp));
 
-        mockMvc.perform(post("/api/v1/auth/login")
+        MvcResult started = mockMvc.perform(post("/api/v1/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(dto))
                 )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.userId").value(1L))
-                .andExpect(jsonPath("$.token").value("Token"));
+                .andExpect(jsonPath("$.token").value("Token"))
+                .andExpect(jsonPath("$.refreshToken").value("Refresh"));
+
+        verify(authService, times(1)).loginAsync(dto);
+    }
+
+    @Test
+    void refresh_success() throws Exception {
+        RefreshTokenDto dto = new RefreshTokenDto("old-refresh");
+        when(authService.refresh(dto)).thenReturn(new UserLoginRespDto(1L, "Token", "new-refresh"));
+
+        mockMvc.perform(post("/api/v1/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("Token"))
+                .andExpect(jsonPath("$.refreshToken").value("new-refresh"));
+    }
+
+    @Test
+    void refresh_invalidToken_shouldReturnUnauthorized() throws Exception {
+        RefreshTokenDto dto = new RefreshTokenDto("reused");
+        when(authService.refresh(dto)).thenThrow(new BadCredentialsException("Invalid refresh token"));
+
+        mockMvc.perform(post("/api/v1/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto))
+                )
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.title").value("BAD_CREDENTIALS"));
+    }
+
+    @Test
+    void refresh_validationError() throws Exception {
+        mockMvc.perform(post("/api/v1/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\": \"\"}")
+                )
+                .andExpect(status().isBadRequest());
+
+        verify(authService, never()).refresh(any());
+    }
+
+    @Test
+    void login_badCredentials_shouldReturnUnauthorized() throws Exception {
+        UserLoginDto dto = new UserLoginDto();
+        dto.setEmail("email@email.com");
+        dto.setPassword("password");
 
-        verify(authService, times(1)).login(dto);
+        when(authService.loginAsync(dto))
+                .thenReturn(CompletableFuture.failedFuture(new BadCredentialsException("Bad credentials")));
+
+        MvcResult started = mockMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto))
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.title").value("BAD_CREDENTIALS"));
+    }
+
+    @Test
+    void login_queueFull_shouldReturnServiceUnavailable() throws Exception {
+        UserLoginDto dto = new UserLoginDto();
+        dto.setEmail("email@email.com");
+        dto.setPassword("password");
+
+        when(authService.loginAsync(dto))
+                .thenThrow(new ServiceUnavailableException("Too many login attempts", Duration.ofSeconds(2)));
+
+        mockMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto))
+                )
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.title").value("SERVICE_UNAVAILABLE"));
     }
 
     @Test
@@ -79,7 +174,24 @@ public class AuthControllerTest {
                 .andExpect(jsonPath("$.errors.email").exists())
                 .andExpect(jsonPath("$.errors.password").exists());
 
-        verify(authService, never()).login(any());
+        verify(authService, never()).loginAsync(any());
+    }
+
+    @Test
+    void logout_shouldRevokeCurrentToken() throws Exception {
+        mockMvc.perform(post("/api/v1/auth/logout")
+                        .with(jwt().jwt(token -> token.jti("jti-1").claim("userId", 1L))))
+                .andExpect(status().isNoContent());
+
+        verify(authService).logout(argThat(token -> "jti-1".equals(token.getId())));
+    }
+
+    @Test
+    void logout_withoutToken_shouldReturnUnauthorized() throws Exception {
+        mockMvc.perform(post("/api/v1/auth/logout"))
+                .andExpect(status().isUnauthorized());
+
+        verify(authService, never()).logout(any());
     }
 
     @Test
@@ -1,12 +1,28 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.CardBatchCreateDto;
+import com.example.bankcards.dto.CardBlockApproveDto;
+import com.example.bankcards.dto.CardBlockApproveRespDto;
+import com.example.bankcards.dto.CardBatchCreateRespDto;
 import com.example.bankcards.dto.CardCreateDto;
+import com.example.bankcards.dto.CardCreateResultDto;
+import com.example.bankcards.dto.CardNumberDto;
 import com.example.bankcards.dto.CardRespDto;
 import com.example.bankcards.dto.CardStatusDto;
+import com.example.bankcards.dto.CardBatchTransferDto;
+import com.example.bankcards.dto.CardBatchTransferRespDto;
+import com.example.bankcards.dto.CardTransactionDto;
 import com.example.bankcards.dto.CardTransferDto;
+import com.example.bankcards.dto.CardTransferResultDto;
+import com.example.bankcards.dto.CursorPageDto;
+import com.example.bankcards.dto.SliceDto;
+import com.example.bankcards.entity.CardTransaction;
 import com.example.bankcards.entity.CreditCard;
+import com.example.bankcards.exception.InvalidRequestException;
 import com.example.bankcards.security.SecurityConfig;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.TokenRevocationService;
+import com.example.bankcards.util.CardCursor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +32,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -23,7 +40,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -40,6 +59,9 @@ public class CardControllerTest {
     @MockitoBean
     private CardService cardService;
 
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -68,6 +90,36 @@ public class CardControllerTest {
         verify(cardService).generate();
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void generateCardNumbers_ok() throws Exception {
+        when(cardService.generate(3)).thenReturn(List.of("4000001111111111", "4000002222222222", "4000003333333333"));
+
+        mockMvc.perform(get("/api/v1/cards/admin/generate-card-numbers").param("count", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0]").value("4000001111111111"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void generateCardNumbers_countOutOfRange_shouldReturnBadRequest() throws Exception {
+        when(cardService.generate(5000)).thenThrow(new InvalidRequestException("Count must be between 1 and 1000"));
+
+        mockMvc.perform(get("/api/v1/cards/admin/generate-card-numbers").param("count", "5000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.title").value("BAD_REQUEST"));
+    }
+
+    @Test
+    @WithMockUser
+    void generateCardNumbers_forbiddenForUser() throws Exception {
+        mockMvc.perform(get("/api/v1/cards/admin/generate-card-numbers"))
+                .andExpect(status().isForbidden());
+
+        verify(cardService, never()).generate(anyInt());
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void createCard_created() throws Exception {
@@ -91,6 +143,42 @@ public class CardControllerTest {
         verify(cardService).create(any(CardCreateDto.class));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void createBatch_ok() throws Exception {
+        CardCreateDto dto = new CardCreateDto();
+        dto.setUserId(1L);
+        dto.setCardNumber("4000006806224829");
+        dto.setExpiryDate("12/50");
+        dto.setBalance(new BigDecimal("1000.00"));
+
+        when(cardService.createBatch(any())).thenReturn(new CardBatchCreateRespDto(1, 1, 0, List.of(
+                new CardCreateResultDto(0, 7L, "**** **** **** 4829", 1L, CardCreateResultDto.Status.CREATED))));
+
+        mockMvc.perform(post("/api/v1/cards/admin/create/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CardBatchCreateDto(List.of(dto)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.results[0].cardId").value(7))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void createBatch_invalidItem_shouldReturnBadRequest() throws Exception {
+        CardCreateDto dto = new CardCreateDto();
+        dto.setUserId(1L);
+        dto.setCardNumber("1234");
+
+        mockMvc.perform(post("/api/v1/cards/admin/create/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CardBatchCreateDto(List.of(dto)))))
+                .andExpect(status().isBadRequest());
+
+        verify(cardService, never()).createBatch(any());
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void createCard_ShouldMaskCardNumber() throws Exception {
@@ -143,6 +231,37 @@ public class CardControllerTest {
         verify(cardService, never()).create(any());
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void findByNumber_ok() throws Exception {
+        CardRespDto response = new CardRespDto();
+        response.setId(7L);
+        response.setCardNumber("4000006806224829");
+
+        when(cardService.findByNumber(any())).thenReturn(response);
+
+        mockMvc.perform(post("/api/v1/cards/admin/find-by-number")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CardNumberDto("4000006806224829"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(7L))
+                .andExpect(jsonPath("$.cardNumber").value("**** **** **** 4829"));
+
+        verify(cardService).findByNumber(any(CardNumberDto.class));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void findByNumber_validationError() throws Exception {
+        mockMvc.perform(post("/api/v1/cards/admin/find-by-number")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CardNumberDto("1234"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.cardNumber").isNotEmpty());
+
+        verify(cardService, never()).findByNumber(any());
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void getCardsList_ok() throws Exception {
@@ -206,6 +325,209 @@ public class CardControllerTest {
         verify(cardService, never()).getCardsList(any(), any());
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getCardsListByCursor_ok() throws Exception {
+        CardRespDto dto = new CardRespDto();
+        dto.setCardNumber("4000006806224828");
+
+        when(cardService.getCardsListByCursor(any(), eq("aWR8QVNDfDEw"), any(), eq(5)))
+                .thenReturn(new CursorPageDto<>(List.of(dto), 1, true, "aWR8QVNDfDEx"));
+
+        mockMvc.perform(get("/api/v1/cards/admin/list/cursor")
+                        .param("cursor", "aWR8QVNDfDEw")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].cardNumber").value("**** **** **** 4828"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("aWR8QVNDfDEx"));
+
+        verify(cardService).getCardsListByCursor(any(), eq("aWR8QVNDfDEw"), any(), eq(5));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getCardsListByCursor_invalidCursor_shouldReturnBadRequest() throws Exception {
+        when(cardService.getCardsListByCursor(any(), eq("garbage"), any(), anyInt()))
+                .thenAnswer(inv -> CardCursor.position(inv.getArgument(1), inv.getArgument(2)));
+
+        mockMvc.perform(get("/api/v1/cards/admin/list/cursor")
+                        .param("cursor", "garbage"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.title").value("BAD_REQUEST"))
+                .andExpect(jsonPath("$.detail").value("Invalid cursor: garbage"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getCardsListByCursor_unsupportedSort_shouldReturnBadRequest() throws Exception {
+        when(cardService.getCardsListByCursor(any(), isNull(), any(), anyInt()))
+                .thenAnswer(inv -> CardCursor.position(inv.getArgument(1), inv.getArgument(2)));
+
+        mockMvc.perform(get("/api/v1/cards/admin/list/cursor")
+                        .param("sort", "cardNumber"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.title").value("BAD_REQUEST"));
+    }
+
+    @Test
+    @WithMockUser
+    void getCardsListByCursor_forbiddenForUser() throws Exception {
+        mockMvc.perform(get("/api/v1/cards/admin/list/cursor"))
+                .andExpect(status().isForbidden());
+
+        verify(cardService, never()).getCardsListByCursor(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getCardsListSlice_ok() throws Exception {
+        CardRespDto dto = new CardRespDto();
+        dto.setCardNumber("4000006806224828");
+
+        when(cardService.getCardsListSlice(any(), any()))
+                .thenReturn(new SliceDto<>(List.of(dto), new SliceDto.Meta(5, 1, true)));
+
+        mockMvc.perform(get("/api/v1/cards/admin/list/slice")
+                        .param("page", "1")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].cardNumber").value("**** **** **** 4828"))
+                .andExpect(jsonPath("$.page.size").value(5))
+                .andExpect(jsonPath("$.page.number").value(1))
+                .andExpect(jsonPath("$.page.hasNext").value(true))
+                .andExpect(jsonPath("$.page.totalElements").doesNotExist());
+
+        verify(cardService).getCardsListSlice(any(), eq(PageRequest.of(1, 5, Sort.by("id"))));
+    }
+
+    @Test
+    @WithMockUser
+    void getCardsListSlice_forbiddenForUser() throws Exception {
+        mockMvc.perform(get("/api/v1/cards/admin/list/slice"))
+                .andExpect(status().isForbidden());
+
+        verify(cardService, never()).getCardsListSlice(any(), any());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void export_ndjson_shouldStreamMaskedRows() throws Exception {
+        CardRespDto card = new CardRespDto(1L, "JOHN DOE", "4000006806224828", "12/29",
+                CreditCard.CardStatus.ACTIVE, false, new BigDecimal("100.00"), 5L);
+        doAnswer(inv -> {
+            Consumer<CardRespDto> consumer = inv.getArgument(1);
+            consumer.accept(card);
+            consumer.accept(card);
+            return null;
+        }).when(cardService).exportCards(any(), any());
+
+        MvcResult started = mockMvc.perform(get("/api/v1/cards/admin/export").param("status", "ACTIVE"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"cards.ndjson\""))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body.split("\n")).hasSize(2)
+                .allSatisfy(line -> assertThat(line)
+                        .startsWith("{\"id\":1,")
+                        .contains("\"cardNumber\":\"**** **** **** 4828\"")
+                        .doesNotContain("4000006806224828"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void export_csv_shouldQuoteAndMask() throws Exception {
+        CardRespDto card = new CardRespDto(1L, "DOE, \"JR\"", "4000006806224828", "12/29",
+                CreditCard.CardStatus.BLOCKED, true, new BigDecimal("0.50"), 5L);
+        doAnswer(inv -> {
+            inv.<Consumer<CardRespDto>>getArgument(1).accept(card);
+            return null;
+        }).when(cardService).exportCards(any(), any());
+
+        MvcResult started = mockMvc.perform(get("/api/v1/cards/admin/export").param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string("""
+                        id,cardHolder,cardNumber,expiryDate,status,toBlock,balance,userId
+                        1,"DOE, ""JR""\",**** **** **** 4828,12/29,BLOCKED,true,0.50,5
+                        """));
+    }
+
+    @Test
+    @WithMockUser
+    void export_forbiddenForUser() throws Exception {
+        mockMvc.perform(get("/api/v1/cards/admin/export"))
+                .andExpect(status().isForbidden());
+
+        verify(cardService, never()).exportCards(any(), any());
+    }
+
+    @Test
+    @WithMockUser
+    void getAllForMeSlice_ok() throws Exception {
+        when(cardService.getUserCardsSlice(any(), any()))
+                .thenReturn(new SliceDto<>(List.of(new CardRespDto()), new SliceDto.Meta(10, 0, false)));
+
+        mockMvc.perform(get("/api/v1/cards/my-cards/slice"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isArray())
+                .andExpect(jsonPath("$.page.hasNext").value(false));
+
+        verify(cardService).getUserCardsSlice(any(), any());
+    }
+
+    @Test
+    @WithMockUser
+    void getAllForMeByCursor_ok() throws Exception {
+        when(cardService.getUserCardsByCursor(any(), isNull(), any(), eq(10)))
+                .thenReturn(new CursorPageDto<>(List.of(new CardRespDto()), 1, false, null));
+
+        mockMvc.perform(get("/api/v1/cards/my-cards/cursor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isArray())
+                .andExpect(jsonPath("$.hasNext").value(false));
+
+        verify(cardService).getUserCardsByCursor(any(), isNull(), any(), eq(10));
+    }
+
+    @Test
+    @WithMockUser
+    void getCardTransactions_ok() throws Exception {
+        CardTransactionDto dto = new CardTransactionDto(7L, 10L, 11L, CardTransaction.Type.CREDIT,
+                new BigDecimal("50.00"), new BigDecimal("150.00"), Instant.parse("2026-03-02T10:15:30Z"));
+
+        when(cardService.getCardTransactions(eq(10L), isNull(), eq(20)))
+                .thenReturn(new CursorPageDto<>(List.of(dto), 1, true, "next"));
+
+        mockMvc.perform(get("/api/v1/cards/10/transactions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].type").value("CREDIT"))
+                .andExpect(jsonPath("$.content[0].balanceAfter").value(150.00))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        verify(cardService).getCardTransactions(eq(10L), isNull(), eq(20));
+    }
+
+    @Test
+    @WithMockUser
+    void getCardTransactions_foreignCard_forbidden() throws Exception {
+        when(cardService.getCardTransactions(eq(10L), any(), anyInt()))
+                .thenThrow(new IllegalArgumentException("You can not view transactions of Card #10"));
+
+        mockMvc.perform(get("/api/v1/cards/10/transactions"))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     @WithMockUser
     void getAllForMe_ok() throws Exception {
@@ -279,6 +601,52 @@ public class CardControllerTest {
         verify(cardService).blockRequest(eq(10L));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void approveBlockRequests_withoutBody_approvesAll() throws Exception {
+        when(cardService.approveBlockRequests(new CardBlockApproveDto(null, null)))
+                .thenReturn(new CardBlockApproveRespDto(2, List.of(3L, 7L)));
+
+        mockMvc.perform(patch("/api/v1/cards/admin/block-requests/approve"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.blocked").value(2))
+                .andExpect(jsonPath("$.cardIds[1]").value(7L));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void approveBlockRequests_filtered() throws Exception {
+        CardBlockApproveDto dto = new CardBlockApproveDto(5L, List.of(3L));
+        when(cardService.approveBlockRequests(dto))
+                .thenReturn(new CardBlockApproveRespDto(1, List.of(3L)));
+
+        mockMvc.perform(patch("/api/v1/cards/admin/block-requests/approve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.blocked").value(1));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void approveBlockRequests_invalidUserId_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(patch("/api/v1/cards/admin/block-requests/approve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\": 0}"))
+                .andExpect(status().isBadRequest());
+
+        verify(cardService, never()).approveBlockRequests(any());
+    }
+
+    @Test
+    @WithMockUser
+    void approveBlockRequests_forbiddenForUser() throws Exception {
+        mockMvc.perform(patch("/api/v1/cards/admin/block-requests/approve"))
+                .andExpect(status().isForbidden());
+
+        verify(cardService, never()).approveBlockRequests(any());
+    }
+
     @Test
     @WithMockUser
     void transfer_success() throws Exception {
@@ -321,6 +689,68 @@ public class CardControllerTest {
         verify(cardService, never()).transfer(any());
     }
 
+    @Test
+    @WithMockUser
+    void transferBatch_success() throws Exception {
+        CardTransferDto first = new CardTransferDto();
+        first.setFromId(1L);
+        first.setToId(2L);
+        first.setAmount(new BigDecimal("10.00"));
+
+        CardTransferDto second = new CardTransferDto();
+        second.setFromId(2L);
+        second.setToId(3L);
+        second.setAmount(new BigDecimal("5000.00"));
+
+        when(cardService.transferBatch(any()))
+                .thenReturn(new CardBatchTransferRespDto(2, 1, 1, List.of(
+                        new CardTransferResultDto(0, 1L, 2L, "10.00", CardTransferResultDto.Status.SUCCESS),
+                        new CardTransferResultDto(1, 2L, 3L, "5000.00", CardTransferResultDto.Status.REJECTED)
+                )));
+
+        mockMvc.perform(post("/api/v1/cards/transfer/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CardBatchTransferDto(List.of(first, second)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.results[1].status").value("REJECTED"));
+
+        verify(cardService).transferBatch(any());
+    }
+
+    @Test
+    @WithMockUser
+    void transferBatch_whenItemInvalid_validationError() throws Exception {
+        CardTransferDto dto = new CardTransferDto();
+        dto.setFromId(10L);
+        dto.setToId(10L);
+        dto.setAmount(new BigDecimal("1000.00"));
+
+        mockMvc.perform(post("/api/v1/cards/transfer/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CardBatchTransferDto(List.of(dto)))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.title").value("VALIDATION_ERROR"))
+                .andExpect(jsonPath("$.errors['transfers[0]']")
+                        .value("Field 'fromId' can't be equal to 'toId'"));
+
+        verify(cardService, never()).transferBatch(any());
+    }
+
+    @Test
+    @WithMockUser
+    void transferBatch_whenEmpty_validationError() throws Exception {
+        mockMvc.perform(post("/api/v1/cards/transfer/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CardBatchTransferDto(List.of()))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.transfers").exists());
+
+        verify(cardService, never()).transferBatch(any());
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void deleteCard_noContent() throws Exception {
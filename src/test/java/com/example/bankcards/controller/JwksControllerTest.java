@@ -0,0 +1,37 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.security.SecurityConfig;
+import com.example.bankcards.service.TokenRevocationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(JwksController.class)
+@Import({SecurityConfig.class})
+@TestPropertySource(properties = "app.jwt.signing.algorithm=ES256")
+class JwksControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
+
+    @Test
+    void jwks_shouldReturnPublicKeysWithoutAuthentication() throws Exception {
+        mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=300, public"))
+                .andExpect(jsonPath("$.keys[0].kty").value("EC"))
+                .andExpect(jsonPath("$.keys[0].crv").value("P-256"))
+                .andExpect(jsonPath("$.keys[0].kid").exists())
+                .andExpect(jsonPath("$.keys[0].d").doesNotExist());
+    }
+}
@@ -9,7 +9,13 @@ import com.example.bankcards.security.JwtService;
 import com.example.bankcards.security.SecurityConfig;
 import com.example.bankcards.service.AuthServiceImpl;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.LoginExecutor;
+import com.example.bankcards.service.RefreshTokenService;
+import com.example.bankcards.service.TokenRevocationService;
+import com.example.bankcards.service.UserCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,13 +31,15 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest({AuthController.class, CardController.class})
-@Import({AuthConfig.class, SecurityConfig.class, AuthServiceImpl.class, JwtService.class})
+@Import({AuthConfig.class, SecurityConfig.class, AuthServiceImpl.class, JwtService.class, UserCache.class, LoginExecutor.class})
 class JwtAuthTestIT {
     @Autowired
     private MockMvc mockMvc;
@@ -48,6 +56,27 @@ class JwtAuthTestIT {
     @MockitoBean
     private CardService cardService;
 
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
+
+    @MockitoBean
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @BeforeEach
+    void stubRefreshTokens() {
+        when(refreshTokenService.issue(any()))
+                .thenReturn(new RefreshTokenService.Issued(1L, "refresh-token", "sid-1"));
+    }
+
+    // тесты подменяют пользователя с тем же email
+    @AfterEach
+    void clearUserCache() {
+        userCache.invalidateAll();
+    }
+
     @Test
     @DisplayName("Проверка успешной генерации JWT токена и работы JwtAuthenticationProvider")
     void loginAsAdmin_AndRequestCardNumber_Success() throws Exception {
@@ -65,11 +94,15 @@ class JwtAuthTestIT {
         when(repository.findByEmail(dto.getEmail())).thenReturn(Optional.of(adminUser));
         when(cardService.generate()).thenReturn("4111111111111111");
 
-        MvcResult result = mockMvc.perform(
+        MvcResult started = mockMvc.perform(
                 post("/api/v1/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(dto))
         )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
                 .andExpect(status().isOk())
                 .andReturn();
 
@@ -111,11 +144,15 @@ class JwtAuthTestIT {
         when(repository.findByEmail(dto.getEmail())).thenReturn(Optional.of(user));
         when(cardService.generate()).thenReturn("4111111111111111");
 
-        MvcResult result = mockMvc.perform(
+        MvcResult started = mockMvc.perform(
                         post("/api/v1/auth/login")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(dto))
                 )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
                 .andExpect(status().isOk())
                 .andReturn();
 
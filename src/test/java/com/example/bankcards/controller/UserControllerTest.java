@@ -1,10 +1,12 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.SliceDto;
 import com.example.bankcards.dto.UserFilterDto;
 import com.example.bankcards.dto.UserRespDto;
 import com.example.bankcards.dto.UserUpdateDto;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.security.SecurityConfig;
+import com.example.bankcards.service.TokenRevocationService;
 import com.example.bankcards.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -29,6 +31,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UserController.class)
@@ -47,6 +50,9 @@ class UserControllerTest {
     @MockitoBean
     private UserService userService;
 
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
+
     @Test
     void getAuthenticatedUser_Ok() throws Exception {
         User user = User.builder()
@@ -79,6 +85,51 @@ class UserControllerTest {
         verify(userService).findOne(any());
     }
 
+    @Test
+    void getAuthenticatedUser_revokedToken_Unauthorized() throws Exception {
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .id("7d3c7c3e-1c55-4a4e-9a3e-6b1f0f7a9a10")
+                .issuer("self")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(5))
+                .subject("email@email.com")
+                .claim("userId", 1L)
+                .claim("roles", List.of("USER"))
+                .build();
+
+        String token = jwtEncoder
+                .encode(JwtEncoderParameters.from(claims))
+                .getTokenValue();
+
+        when(tokenRevocationService.isRevoked(any())).thenReturn(true);
+
+        mockMvc.perform(
+                get("/api/v1/users/me")
+                        .header("Authorization", "Bearer " + token)
+                )
+                .andExpect(status().isUnauthorized());
+
+        verify(userService, never()).findOne(any());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void revokeTokens_noContent() throws Exception {
+        mockMvc.perform(post("/api/v1/users/admin/revoke-tokens/5"))
+                .andExpect(status().isNoContent());
+
+        verify(userService).revokeTokens(5L);
+    }
+
+    @Test
+    @WithMockUser
+    void revokeTokens_forbiddenForUser() throws Exception {
+        mockMvc.perform(post("/api/v1/users/admin/revoke-tokens/5"))
+                .andExpect(status().isForbidden());
+
+        verify(userService, never()).revokeTokens(any());
+    }
+
 
     @Test
     @WithMockUser
@@ -121,6 +172,31 @@ class UserControllerTest {
         verify(userService).findAll(any(), any());
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getUsersSlice_Ok() throws Exception {
+        UserRespDto user = new UserRespDto(1L, "email@email.com", User.Role.USER, "firstName", "lastName");
+        when(userService.findSlice(any(UserFilterDto.class), any(Pageable.class)))
+                .thenReturn(new SliceDto<>(List.of(user), new SliceDto.Meta(10, 0, false)));
+
+        mockMvc.perform(get("/api/v1/users/admin/list/slice"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1L))
+                .andExpect(jsonPath("$.page.hasNext").value(false))
+                .andExpect(jsonPath("$.page.totalPages").doesNotExist());
+
+        verify(userService).findSlice(any(), any());
+    }
+
+    @Test
+    @WithMockUser
+    void getUsersSlice_ForbiddenForUser() throws Exception {
+        mockMvc.perform(get("/api/v1/users/admin/list/slice"))
+                .andExpect(status().isForbidden());
+
+        verify(userService, never()).findSlice(any(), any());
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void getUsers_validationError() throws Exception {
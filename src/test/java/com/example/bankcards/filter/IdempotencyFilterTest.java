@@ -0,0 +1,206 @@
+package com.example.bankcards.filter;
+
+import com.example.bankcards.service.IdempotencyStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+    private static final String KEY = "3f1c2a";
+    private static final String BODY = "{\"fromId\":1,\"toId\":2,\"amount\":10.00}";
+
+    @Mock
+    IdempotencyStore store;
+
+    @Mock
+    FilterChain chain;
+
+    IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new IdempotencyFilter(store, new ObjectMapper());
+
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .claim("userId", 1L)
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static MockHttpServletRequest request(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/cards/transfer");
+        request.addHeader(IdempotencyFilter.HEADER, KEY);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    @Test
+    void firstRequest_shouldExecuteAndStoreResponse() throws Exception {
+        when(store.find(1L, KEY)).thenReturn(Optional.empty());
+        when(store.claim(eq(1L), eq(KEY), anyString())).thenReturn(true);
+        doAnswer(inv -> {
+            // контроллер получает тело, уже прочитанное фильтром
+            assertThat(new String(inv.<HttpServletRequest>getArgument(0).getInputStream().readAllBytes(),
+                    StandardCharsets.UTF_8)).isEqualTo(BODY);
+            HttpServletResponse response = inv.getArgument(1);
+            response.setStatus(200);
+            response.setContentType("text/plain");
+            response.getWriter().write("Success");
+            return null;
+        }).when(chain).doFilter(any(), any());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(BODY), response, chain);
+
+        assertThat(response.getContentAsString()).isEqualTo("Success");
+        ArgumentCaptor<IdempotencyStore.StoredResponse> captor =
+                ArgumentCaptor.forClass(IdempotencyStore.StoredResponse.class);
+        verify(store).complete(eq(1L), eq(KEY), captor.capture());
+        assertThat(captor.getValue().status()).isEqualTo(200);
+        assertThat(new String(captor.getValue().body(), StandardCharsets.UTF_8)).isEqualTo("Success");
+        verify(store, never()).release(any(), any());
+    }
+
+    @Test
+    void failedRequest_shouldReleaseKey() throws Exception {
+        when(store.find(1L, KEY)).thenReturn(Optional.empty());
+        when(store.claim(eq(1L), eq(KEY), anyString())).thenReturn(true);
+        doAnswer(inv -> {
+            inv.<HttpServletResponse>getArgument(1).setStatus(403);
+            return null;
+        }).when(chain).doFilter(any(), any());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(BODY), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(403);
+        verify(store).release(1L, KEY);
+        verify(store, never()).complete(any(), any(), any());
+    }
+
+    @Test
+    void completeFailure_shouldKeepKeyClaimedAndReturnResponse() throws Exception {
+        when(store.find(1L, KEY)).thenReturn(Optional.empty());
+        when(store.claim(eq(1L), eq(KEY), anyString())).thenReturn(true);
+        doAnswer(inv -> {
+            HttpServletResponse response = inv.getArgument(1);
+            response.setStatus(200);
+            response.getWriter().write("Success");
+            return null;
+        }).when(chain).doFilter(any(), any());
+        doThrow(new RuntimeException("connection lost")).when(store).complete(eq(1L), eq(KEY), any());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(BODY), response, chain);
+
+        // перевод выполнен: повтор до истечения lease не должен выполнить его снова
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("Success");
+        verify(store, never()).release(any(), any());
+    }
+
+    @Test
+    void replay_shouldReturnStoredResponseWithoutExecuting() throws Exception {
+        // хэш первого запроса берём из claim
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        when(store.find(1L, KEY)).thenReturn(Optional.empty());
+        when(store.claim(eq(1L), eq(KEY), hash.capture())).thenReturn(true);
+        filter.doFilter(request(BODY), new MockHttpServletResponse(), chain);
+        reset(chain);
+
+        when(store.find(1L, KEY)).thenReturn(Optional.of(new IdempotencyStore.StoredResponse(
+                hash.getValue(), 200, "text/plain", "Success".getBytes(StandardCharsets.UTF_8))));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(BODY), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("Success");
+        assertThat(response.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        verifyNoInteractions(chain);
+    }
+
+    @Test
+    void sameKeyDifferentBody_shouldBeRejected() throws Exception {
+        when(store.find(1L, KEY)).thenReturn(Optional.of(new IdempotencyStore.StoredResponse(
+                "another-hash", 200, "text/plain", new byte[0])));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(BODY), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(422);
+        verifyNoInteractions(chain);
+    }
+
+    @Test
+    void bufferedBody_shouldSupportNonBlockingRead() throws Exception {
+        when(store.find(1L, KEY)).thenReturn(Optional.empty());
+        when(store.claim(eq(1L), eq(KEY), anyString())).thenReturn(true);
+        ReadListener listener = mock(ReadListener.class);
+        doAnswer(inv -> {
+            inv.<HttpServletRequest>getArgument(0).getInputStream().setReadListener(listener);
+            return null;
+        }).when(chain).doFilter(any(), any());
+
+        filter.doFilter(request(BODY), new MockHttpServletResponse(), chain);
+
+        InOrder inOrder = inOrder(listener);
+        inOrder.verify(listener).onDataAvailable();
+        inOrder.verify(listener).onAllDataRead();
+    }
+
+    @Test
+    void concurrentRequest_shouldBeRejectedAsInProgress() throws Exception {
+        when(store.find(1L, KEY))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new IdempotencyStore.StoredResponse("hash", null, null, null)));
+        when(store.claim(eq(1L), eq(KEY), anyString())).thenReturn(false);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(BODY), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(409);
+        assertThat(response.getContentAsString()).contains("in progress");
+        verifyNoInteractions(chain);
+    }
+
+    @Test
+    void requestWithoutKey_shouldPassThrough() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/cards/transfer");
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        verify(chain).doFilter(any(), any());
+        verifyNoInteractions(store);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.bankcards.filter;
+
+import com.example.bankcards.config.RateLimitProperties;
+import com.example.bankcards.service.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    @Mock
+    RateLimiter limiter;
+
+    @Mock
+    FilterChain chain;
+
+    RateLimitProperties.Rule auth = rule("auth", "/api/v1/auth/login");
+    RateLimitProperties.Rule transfer = rule("transfer", "/api/v1/cards/transfer/**");
+    RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRules(List.of(auth, transfer));
+        filter = new RateLimitFilter(properties, limiter, new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static RateLimitProperties.Rule rule(String name, String pattern) {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setName(name);
+        rule.setPatterns(List.of(pattern));
+        rule.setCapacity(10);
+        rule.setPeriod(Duration.ofMinutes(1));
+        return rule;
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+
+    @Test
+    void anonymousRequest_shouldBeLimitedByRemoteAddress() throws Exception {
+        when(limiter.tryAcquire(auth, "ip:10.0.0.1")).thenReturn(Optional.empty());
+        MockHttpServletRequest request = request("/api/v1/auth/login");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chain);
+
+        verify(chain).doFilter(request, response);
+    }
+
+    @Test
+    void authenticatedRequest_shouldBeLimitedByUserId() throws Exception {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .claim("userId", 1L)
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+        when(limiter.tryAcquire(transfer, "user:1")).thenReturn(Optional.empty());
+
+        filter.doFilter(request("/api/v1/cards/transfer/batch"), new MockHttpServletResponse(), chain);
+
+        verify(chain).doFilter(any(), any());
+    }
+
+    @Test
+    void exceededLimit_shouldReturn429WithRetryAfter() throws Exception {
+        when(limiter.tryAcquire(auth, "ip:10.0.0.1")).thenReturn(Optional.of(Duration.ofMillis(1500)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("/api/v1/auth/login"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(response.getContentAsString()).contains("TOO_MANY_REQUESTS");
+        verifyNoInteractions(chain);
+    }
+
+    @Test
+    void unmatchedPath_shouldNotBeLimited() throws Exception {
+        filter.doFilter(request("/api/v1/cards/my-cards"), new MockHttpServletResponse(), chain);
+
+        verify(chain).doFilter(any(), any());
+        verifyNoInteractions(limiter);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CreditCard;
+import com.example.bankcards.util.SearchMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static com.example.bankcards.repository.CardSpecifications.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет, что запросы, которые строят CardSpecifications и CardRepository,
+ * не читают credit_card последовательным сканированием. Выполняются настоящие
+ * запросы репозитория (SQL генерирует Hibernate), а сканирования считаются по
+ * pg_stat_xact_user_tables — статистике текущей транзакции.
+ * Данные создаются в транзакции теста и откатываются. Требует запущенной БД
+ * из docker-compose.yml.
+ */
+@SpringBootTest
+@Transactional
+class CardIndexUsageDbIT {
+    private static final int USERS = 2_000;
+    private static final int CARDS_PER_USER = 10;
+    private static final PageRequest PAGE = PageRequest.of(0, 10, Sort.by("id"));
+    private static final LocalDate EXPIRY_DATE = LocalDate.of(2027, 1, 26);
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    CardRepository repository;
+
+    private long userId;
+    private String holderPart;
+
+    /**
+     * Запрос к репозиторию с данными, созданными в {@link #seed()}.
+     */
+    @FunctionalInterface
+    interface CardQuery {
+        void run(CardRepository repository, long userId, String holderPart);
+    }
+
+    private record Scans(long seq, long idx) {}
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO users (id, email, password, first_name, last_name, role)
+                SELECT nextval('users_seq'), 'idx-' || g || '@seed.test', 'x', 'SEED', 'USER', CAST('USER' AS user_role)
+                  FROM generate_series(1, ?) g
+                """, USERS);
+        jdbcTemplate.update("""
+                INSERT INTO credit_card (id, card_holder, card_number, card_number_hash,
+                                         expiry_date, status, to_block, balance, user_id)
+                SELECT nextval('credit_card_seq'),
+                       upper('h' || md5(u.id::text)),
+                       'seed-' || u.id || '-' || g,
+                       md5('seed-' || u.id || '-' || g),
+                       DATE '2026-01-31' + ((u.id / 50 + g) % 60) * 30,
+                       CAST(CASE WHEN g % 10 = 0 AND u.id % 7 = 0 THEN 'BLOCKED'
+                                 WHEN g % 10 = 0 AND u.id % 11 = 0 THEN 'EXPIRED'
+                                 ELSE 'ACTIVE' END AS credit_card_status),
+                       g = 1 AND u.id % 13 = 0,
+                       100000,
+                       u.id
+                  FROM users u
+                 CROSS JOIN generate_series(1, ?) g
+                 WHERE u.email LIKE 'idx-%@seed.test'
+                """, CARDS_PER_USER);
+        jdbcTemplate.execute("ANALYZE credit_card");
+
+        userId = jdbcTemplate.queryForObject(
+                "SELECT id FROM users WHERE email = 'idx-" + USERS / 2 + "@seed.test'", Long.class);
+        holderPart = jdbcTemplate.queryForObject(
+                "SELECT substr(md5(?::text), 1, 8)", String.class, userId);
+    }
+
+    static Stream<Arguments> queries() {
+        return Stream.of(
+                // /admin/list cardHolder, SearchMode.CONTAINS — GIN pg_trgm
+                query("cardHolder contains", (repository, userId, part) ->
+                        repository.findBy(cardHolderLike(part, SearchMode.CONTAINS), q -> q.page(PAGE))),
+                // SearchMode.PREFIX — text_pattern_ops
+                query("cardHolder prefix", (repository, userId, part) ->
+                        repository.findBy(cardHolderLike("h" + part, SearchMode.PREFIX), q -> q.slice(PAGE))),
+                // /my-cards: hasUserId + страница и count для Page
+                query("my cards", (repository, userId, part) ->
+                        repository.findBy(hasUserId(userId), q -> q.page(PAGE))),
+                // /my-cards: hasUserId + hasStatus + hasToBlock
+                query("my cards by status", (repository, userId, part) ->
+                        repository.findBy(hasUserId(userId)
+                                        .and(hasStatus(CreditCard.CardStatus.ACTIVE))
+                                        .and(hasToBlock(false)),
+                                q -> q.page(PAGE))),
+                // /my-cards: hasUserId + hasDate
+                query("my cards by expiry date", (repository, userId, part) ->
+                        repository.findBy(hasUserId(userId).and(hasDate(EXPIRY_DATE)), q -> q.page(PAGE))),
+                query("sumBalanceByUserId", (repository, userId, part) ->
+                        repository.sumBalanceByUserId(userId)),
+                // /admin/list: hasStatus + hasToBlock (заявки на блокировку)
+                query("block requests", (repository, userId, part) ->
+                        repository.findBy(hasStatus(CreditCard.CardStatus.ACTIVE).and(hasToBlock(true)),
+                                q -> q.page(PAGE))),
+                // /admin/list: hasDate
+                query("cards by expiry date", (repository, userId, part) ->
+                        repository.findBy(hasDate(EXPIRY_DATE), q -> q.page(PAGE))),
+                // CardExpirySweeper: порция просроченных карт (частичный индекс из 20-01)
+                query("expirePastDue", (repository, userId, part) ->
+                        repository.expirePastDue(1000))
+        );
+    }
+
+    private static Arguments query(String name, CardQuery query) {
+        return Arguments.of(name, query);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void query_shouldNotScanWholeTable(String name, CardQuery query) {
+        Scans before = scans();
+
+        query.run(repository, userId, holderPart);
+
+        Scans after = scans();
+        assertThat(after.seq())
+                .as("sequential scans of credit_card by %s", name)
+                .isEqualTo(before.seq());
+        assertThat(after.idx())
+                .as("index scans of credit_card by %s", name)
+                .isGreaterThan(before.idx());
+    }
+
+    private Scans scans() {
+        return jdbcTemplate.queryForObject("""
+                SELECT seq_scan, coalesce(idx_scan, 0) AS idx_scan
+                  FROM pg_stat_xact_user_tables
+                 WHERE relname = 'credit_card'
+                """,
+                (rs, i) -> new Scans(rs.getLong("seq_scan"), rs.getLong("idx_scan")));
+    }
+}
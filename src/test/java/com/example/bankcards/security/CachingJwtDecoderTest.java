@@ -0,0 +1,77 @@
+package com.example.bankcards.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingJwtDecoderTest {
+
+    @Mock
+    JwtDecoder delegate;
+
+    SimpleMeterRegistry meterRegistry;
+    CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        decoder = new CachingJwtDecoder(delegate, 100);
+        decoder.bindTo(meterRegistry);
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "HS256")
+                .subject("email@email.com")
+                .issuedAt(Instant.now().minusSeconds(10))
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    @Test
+    void decode_shouldVerifyTokenOnce() {
+        Jwt jwt = jwt("token", Instant.now().plusSeconds(600));
+        when(delegate.decode("token")).thenReturn(jwt);
+
+        assertThat(decoder.decode("token")).isSameAs(jwt);
+        assertThat(decoder.decode("token")).isSameAs(jwt);
+
+        verify(delegate, times(1)).decode("token");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "jwt.decoder").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void decode_shouldNotCacheTokenPastExpiry() {
+        // exp уже прошёл, но токен принят делегатом с допуском на рассинхрон часов
+        when(delegate.decode("token")).thenReturn(jwt("token", Instant.now().minusSeconds(5)));
+
+        decoder.decode("token");
+        decoder.decode("token");
+
+        verify(delegate, times(2)).decode("token");
+    }
+
+    @Test
+    void decode_shouldNotCacheFailures() {
+        when(delegate.decode("bad")).thenThrow(new BadJwtException("bad signature"));
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad"));
+
+        verify(delegate, times(2)).decode("bad");
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.bankcards.security;
+
+import com.nimbusds.jose.jwk.ECKey;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtSigningKeysTest {
+    static final String SECRET = "iNa0fyrTACIZxkT2fu9kET4FtF1BJbIviNa0fyrTACIZxkT2fu9kET4FtF1BJbIv";
+
+    private static JwtEncoderParameters claims() {
+        Instant now = Instant.now();
+        return JwtEncoderParameters.from(JwtClaimsSet.builder()
+                .issuer("self")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(60))
+                .subject("email@email.com")
+                .build());
+    }
+
+    @Test
+    void es256_shouldSignWithActiveKeyAndVerify() {
+        ECKey active = JwtSigningKeys.generateEcKey();
+        JwtSigningKeys keys = JwtSigningKeys.ec(List.of(active));
+
+        Jwt encoded = keys.encoder().encode(claims());
+        Jwt decoded = keys.decoder().decode(encoded.getTokenValue());
+
+        assertThat(encoded.getHeaders()).containsEntry("alg", SignatureAlgorithm.ES256).containsEntry("kid", active.getKeyID());
+        assertThat(decoded.getSubject()).isEqualTo("email@email.com");
+    }
+
+    @Test
+    void es256_shouldVerifyTokensOfRotatedOutKey() {
+        ECKey oldKey = JwtSigningKeys.generateEcKey();
+        ECKey newKey = JwtSigningKeys.generateEcKey();
+        String oldToken = JwtSigningKeys.ec(List.of(oldKey)).encoder().encode(claims()).getTokenValue();
+
+        // новый ключ подписывает, от старого оставлена только публичная часть
+        JwtSigningKeys rotated = JwtSigningKeys.ec(List.of(newKey, oldKey.toPublicJWK()));
+
+        assertThat(rotated.decoder().decode(oldToken).getSubject()).isEqualTo("email@email.com");
+        assertThat(rotated.encoder().encode(claims()).getHeaders()).containsEntry("kid", newKey.getKeyID());
+    }
+
+    @Test
+    void es256_shouldRejectTokenOfUnknownKey() {
+        String token = JwtSigningKeys.ec(List.of(JwtSigningKeys.generateEcKey())).encoder()
+                .encode(claims()).getTokenValue();
+
+        JwtSigningKeys other = JwtSigningKeys.ec(List.of(JwtSigningKeys.generateEcKey()));
+
+        assertThrows(BadJwtException.class, () -> other.decoder().decode(token));
+    }
+
+    @Test
+    void publicJwkSet_shouldExposeOnlyPublicEcKeys() {
+        JwtSigningKeys keys = JwtSigningKeys.ec(List.of(JwtSigningKeys.generateEcKey()));
+
+        assertThat(keys.publicJwkSet().getKeys()).singleElement()
+                .satisfies(jwk -> assertThat(jwk.isPrivate()).isFalse());
+    }
+
+    @Test
+    void hmac_shouldNotPublishSecret() {
+        JwtSigningKeys keys = JwtSigningKeys.hmac(
+                new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+
+        String token = keys.encoder().encode(claims()).getTokenValue();
+
+        assertThat(keys.decoder().decode(token).getSubject()).isEqualTo("email@email.com");
+        assertThat(keys.publicJwkSet().getKeys()).isEmpty();
+    }
+
+    @Test
+    void ec_shouldRequirePrivateActiveKey() {
+        ECKey publicOnly = JwtSigningKeys.generateEcKey().toPublicJWK();
+
+        assertThrows(IllegalStateException.class, () -> JwtSigningKeys.ec(List.of(publicOnly)));
+    }
+}
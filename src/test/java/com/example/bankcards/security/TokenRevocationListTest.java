@@ -0,0 +1,55 @@
+package com.example.bankcards.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRevocationListTest {
+
+    TokenRevocationList list = new TokenRevocationList();
+    Instant now = Instant.parse("2026-04-13T10:00:00Z");
+
+    @Test
+    void isRevoked_byJti() {
+        list.revoke("jti-1", now.plusSeconds(600));
+
+        assertThat(list.isRevoked("jti-1", 1L, now)).isTrue();
+        assertThat(list.isRevoked("jti-2", 1L, now)).isFalse();
+        assertThat(list.isRevoked(null, 1L, now)).isFalse();
+    }
+
+    @Test
+    void isRevoked_byUserCutoff() {
+        list.revokeUserBefore(1L, now);
+
+        assertThat(list.isRevoked("jti-1", 1L, now.minusSeconds(1))).isTrue();
+        assertThat(list.isRevoked(null, 1L, now.minusSeconds(1))).isTrue();
+        assertThat(list.isRevoked("jti-1", 1L, now.plusSeconds(1))).isFalse();
+        assertThat(list.isRevoked("jti-1", 2L, now.minusSeconds(1))).isFalse();
+    }
+
+    @Test
+    void revokeUserBefore_shouldKeepLatestCutoff() {
+        list.revokeUserBefore(1L, now);
+        list.revokeUserBefore(1L, now.minusSeconds(60));
+
+        assertThat(list.isRevoked(null, 1L, now.minusSeconds(30))).isTrue();
+    }
+
+    @Test
+    void purgeExpired_shouldDropEntriesNoLongerNeeded() {
+        list.revoke("expired", now.minusSeconds(1));
+        list.revoke("live", now.plusSeconds(60));
+        list.revokeUserBefore(1L, now.minus(Duration.ofMinutes(20)));
+        list.revokeUserBefore(2L, now.minus(Duration.ofMinutes(5)));
+
+        list.purgeExpired(now, Duration.ofMinutes(15));
+
+        assertThat(list.size()).isEqualTo(2);
+        assertThat(list.isRevoked("live", null, now)).isTrue();
+        assertThat(list.isRevoked(null, 2L, now.minus(Duration.ofMinutes(10)))).isTrue();
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.bankcards.service;
 
 
+import com.example.bankcards.dto.RefreshTokenDto;
 import com.example.bankcards.dto.UserLoginDto;
 import com.example.bankcards.dto.UserLoginRespDto;
 import com.example.bankcards.dto.UserRegisterDto;
@@ -20,6 +21,9 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -39,6 +43,18 @@ public class AuthServiceImplTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private LoginExecutor loginExecutor;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @InjectMocks
     private AuthServiceImpl authService;
 
@@ -67,6 +83,7 @@ public class AuthServiceImplTest {
         verify(repository).existsByEmail("email@email.com");
         verify(encoder).encode("password");
         verify(repository).saveAndFlush(any(User.class));
+        verify(userCache).evict(null, "email@email.com");
     }
 
     @Test
@@ -131,16 +148,80 @@ public class AuthServiceImplTest {
         when(authenticationManager.authenticate(any()))
                 .thenReturn(auth);
         when(auth.getPrincipal()).thenReturn(user);
-        when(jwtService.generateToken(user)).thenReturn("jwt-token");
+        when(refreshTokenService.issue(1L))
+                .thenReturn(new RefreshTokenService.Issued(1L, "refresh-token", "sid-1"));
+        when(jwtService.generateToken(user, "sid-1")).thenReturn("jwt-token");
 
         UserLoginRespDto result = authService.login(dto);
 
         assertNotNull(result);
         assertEquals(1L, result.userId());
         assertEquals("jwt-token", result.token());
+        assertEquals("refresh-token", result.refreshToken());
 
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(jwtService).generateToken(user);
+        verify(jwtService).generateToken(user, "sid-1");
+    }
+
+    @Test
+    void refresh_shouldRotateWithoutPasswordCheck() {
+        User user = User.builder()
+                .id(1L)
+                .email("email@email.com")
+                .role(User.Role.USER)
+                .build();
+
+        when(refreshTokenService.consume("old-refresh"))
+                .thenReturn(new RefreshTokenService.Consumed(1L, "sid-1"));
+        when(userCache.findById(1L)).thenReturn(Optional.of(user));
+        when(refreshTokenService.issue(1L, "sid-1"))
+                .thenReturn(new RefreshTokenService.Issued(1L, "new-refresh", "sid-1"));
+        when(jwtService.generateToken(user, "sid-1")).thenReturn("jwt-token");
+
+        UserLoginRespDto result = authService.refresh(new RefreshTokenDto("old-refresh"));
+
+        assertEquals(1L, result.userId());
+        assertEquals("jwt-token", result.token());
+        assertEquals("new-refresh", result.refreshToken());
+        verifyNoInteractions(authenticationManager, encoder);
+    }
+
+    @Test
+    void refresh_invalidToken_throwsBadCredentials() {
+        when(refreshTokenService.consume("bad"))
+                .thenThrow(new BadCredentialsException("Invalid refresh token"));
+
+        assertThrows(BadCredentialsException.class,
+                () -> authService.refresh(new RefreshTokenDto("bad")));
+
+        verify(jwtService, never()).generateToken(any(), any());
+    }
+
+    @Test
+    void refresh_deletedUser_shouldNotIssueNewToken() {
+        when(refreshTokenService.consume("old-refresh"))
+                .thenReturn(new RefreshTokenService.Consumed(1L, "sid-1"));
+        when(userCache.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(BadCredentialsException.class,
+                () -> authService.refresh(new RefreshTokenDto("old-refresh")));
+
+        verify(refreshTokenService, never()).issue(any(), any());
+        verify(jwtService, never()).generateToken(any(), any());
+    }
+
+    @Test
+    void logout_shouldRevokeTokenAndSession() {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .jti("jti-1")
+                .claim("sid", "sid-1")
+                .build();
+
+        authService.logout(jwt);
+
+        verify(tokenRevocationService).revoke(jwt);
+        verify(refreshTokenService).revokeSession("sid-1");
     }
 
     @Test
@@ -157,6 +238,7 @@ public class AuthServiceImplTest {
                 () -> authService.login(dto)
         );
 
-        verify(jwtService, never()).generateToken(any());
+        verify(jwtService, never()).generateToken(any(), any());
+        verify(refreshTokenService, never()).issue(any());
     }
 }
@@ -0,0 +1,69 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.repository.CardRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardExpirySweeperTest {
+
+    @Mock
+    CardRepository repository;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void sweep_shouldUpdateInChunksUntilPartialChunk() {
+        when(repository.expirePastDue(100)).thenReturn(100, 100, 42);
+
+        new CardExpirySweeper(repository, transactionTemplate, meterRegistry, 100, 10).sweep();
+
+        verify(repository, times(3)).expirePastDue(100);
+        verify(transactionTemplate, times(3)).execute(any());
+        DistributionSummary swept = meterRegistry.get("card.expiry-sweep.cards").summary();
+        assertThat(swept.count()).isEqualTo(1);
+        assertThat(swept.totalAmount()).isEqualTo(242);
+        assertThat(meterRegistry.get("card.expiry-sweep.duration").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void sweep_shouldStopAtMaxChunks() {
+        when(repository.expirePastDue(10)).thenReturn(10);
+
+        new CardExpirySweeper(repository, transactionTemplate, meterRegistry, 10, 3).sweep();
+
+        verify(repository, times(3)).expirePastDue(10);
+        assertThat(meterRegistry.get("card.expiry-sweep.cards").summary().totalAmount()).isEqualTo(30);
+    }
+
+    @Test
+    void sweep_nothingToExpire_shouldRecordZero() {
+        when(repository.expirePastDue(anyInt())).thenReturn(0);
+
+        new CardExpirySweeper(repository, transactionTemplate, meterRegistry, 1000, 1000).sweep();
+
+        verify(repository, times(1)).expirePastDue(anyInt());
+        assertThat(meterRegistry.get("card.expiry-sweep.cards").summary().totalAmount()).isZero();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.exception.ServiceUnavailableException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.util.CryptoUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardNumberGeneratorTest {
+    private final CryptoUtils cryptoUtils =
+            new CryptoUtils("1234567890123456", "abcdef9876543210", "hmac-test-key");
+
+    @Mock
+    CardRepository repository;
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    private CardNumberGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        generator = new CardNumberGenerator(repository, cryptoUtils, jdbcTemplate,
+                new TransactionTemplate(transactionManager), 10_000, 0.001);
+    }
+
+    @Test
+    void generate_shouldReturnDistinctLuhnValidNumbers_withOneQueryPerBlock() {
+        when(repository.findExistingHashes(any())).thenReturn(List.of());
+
+        List<String> numbers = generator.generate(500);
+
+        assertThat(numbers).hasSize(500).doesNotHaveDuplicates()
+                .allSatisfy(n -> assertThat(n).hasSize(16).startsWith("400000"));
+        assertThat(numbers).allMatch(CardNumberGeneratorTest::luhnValid);
+        verify(repository, times(1)).findExistingHashes(any());
+    }
+
+    @Test
+    void generate_shouldSkipNumbersAlreadyInDatabase() {
+        Set<String> takenHashes = new HashSet<>();
+        when(repository.findExistingHashes(any()))
+                .thenAnswer(inv -> {
+                    // первый блок целиком "выпущен" другим экземпляром
+                    Collection<String> hashes = inv.getArgument(0);
+                    takenHashes.addAll(hashes);
+                    return List.copyOf(hashes);
+                })
+                .thenReturn(List.of());
+
+        List<String> numbers = generator.generate(20);
+
+        assertThat(numbers).hasSize(20)
+                .noneMatch(n -> takenHashes.contains(cryptoUtils.hash(n)));
+        verify(repository, times(2)).findExistingHashes(any());
+    }
+
+    @Test
+    void generate_shouldNotReturnRegisteredNumbers() {
+        when(repository.findExistingHashes(any())).thenReturn(List.of());
+        List<String> first = generator.generate(200);
+        // карты с этими номерами созданы
+        first.forEach(n -> generator.register(cryptoUtils.hash(n)));
+
+        List<String> second = generator.generate(200);
+
+        assertThat(second).doesNotContainAnyElementsOf(first);
+    }
+
+    @Test
+    void generate_shouldNotFillFilterWithHandedOutNumbers() {
+        generator = new CardNumberGenerator(repository, cryptoUtils, jdbcTemplate,
+                new TransactionTemplate(transactionManager), 10, 0.01);
+        when(repository.findExistingHashes(any())).thenReturn(List.of());
+
+        // в 10 раз больше номеров, чем рассчитан фильтр: предпросмотр его не заполняет
+        for (int i = 0; i < 10; i++) {
+            assertThat(generator.generate(10)).hasSize(10);
+        }
+    }
+
+    @Test
+    void generate_whenFilterIsSaturated_shouldFailAfterAttemptLimit() {
+        generator = new CardNumberGenerator(repository, cryptoUtils, jdbcTemplate,
+                new TransactionTemplate(transactionManager), 10, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            generator.register(cryptoUtils.hash("saturate-" + i));
+        }
+
+        assertThrows(ServiceUnavailableException.class, () -> generator.generate(5));
+        verify(repository, never()).findExistingHashes(any());
+    }
+
+    @Test
+    void generate_whenEveryBlockIsTaken_shouldFail() {
+        when(repository.findExistingHashes(any())).thenAnswer(inv -> List.copyOf(inv.<Collection<String>>getArgument(0)));
+
+        assertThrows(ServiceUnavailableException.class, () -> generator.generate(5));
+        verify(repository, times(CardNumberGenerator.MAX_BLOCKS)).findExistingHashes(any());
+    }
+
+    private static boolean luhnValid(String number) {
+        int sum = 0;
+        for (int i = 0; i < number.length(); i++) {
+            int digit = number.charAt(number.length() - 1 - i) - '0';
+            if (i % 2 == 1) {
+                digit *= 2;
+                if (digit > 9) digit -= 9;
+            }
+            sum += digit;
+        }
+        return sum % 10 == 0;
+    }
+}
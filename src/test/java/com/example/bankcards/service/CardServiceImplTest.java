@@ -1,18 +1,27 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.dto.*;
+import com.example.bankcards.entity.CardTransaction;
 import com.example.bankcards.entity.CreditCard;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.UserBalance;
 import com.example.bankcards.exception.BusinessException;
 import com.example.bankcards.exception.ConflictException;
+import com.example.bankcards.exception.InvalidRequestException;
 import com.example.bankcards.exception.OperationRejectedException;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardRepositoryCustom;
+import com.example.bankcards.repository.CardTransactionRepository;
+import com.example.bankcards.repository.UserBalanceRepository;
+import com.example.bankcards.util.CardCursor;
 import com.example.bankcards.util.CryptoUtils;
+import com.example.bankcards.util.TransactionCursor;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -21,13 +30,25 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -40,6 +61,12 @@ public class CardServiceImplTest {
     @Mock
     CardRepository repository;
 
+    @Mock
+    CardTransactionRepository transactionRepository;
+
+    @Mock
+    UserBalanceRepository userBalanceRepository;
+
     @Mock
     UserService userService;
 
@@ -49,11 +76,15 @@ public class CardServiceImplTest {
     @Mock
     CurrentUserService currentUser;
 
+    @Mock
+    CardNumberGenerator cardNumberGenerator;
+
     @InjectMocks
     CardServiceImpl service;
 
     private User user;
     private CreditCard card;
+    private CardRepository.CardView cardView;
 
     @BeforeEach
     void setUp() {
@@ -73,6 +104,8 @@ public class CardServiceImplTest {
                 .status(CreditCard.CardStatus.ACTIVE)
                 .toBlock(false)
                 .build();
+
+        cardView = new SpelAwareProxyProjectionFactory().createProjection(CardRepository.CardView.class, card);
     }
 
     @Test
@@ -84,8 +117,8 @@ public class CardServiceImplTest {
 
         Pageable pageable = PageRequest.of(0, 10);
 
-        when(repository.findAll(any(Specification.class), eq(pageable)))
-                .thenReturn(new PageImpl<>(List.of(card)));
+        when(repository.findBy(any(Specification.class), any()))
+                .thenReturn(new PageImpl<>(List.of(cardView)));
         when(cryptoUtils.decrypt(card.getCardNumber())).thenReturn(card.getCardNumber());
 
         //when
@@ -93,7 +126,7 @@ public class CardServiceImplTest {
 
         //then
         ArgumentCaptor<Specification<CreditCard>> captor = ArgumentCaptor.captor();
-        verify(repository).findAll(captor.capture(), eq(pageable));
+        verify(repository).findBy(captor.capture(), any());
 
         Specification<CreditCard> spec = captor.getValue();
 
@@ -109,8 +142,8 @@ public class CardServiceImplTest {
 
         Pageable pageable = PageRequest.of(0, 10);
 
-        when(repository.findAll(any(Specification.class), eq(pageable)))
-                .thenReturn(new PageImpl<>(List.of(card)));
+        when(repository.findBy(any(Specification.class), any()))
+                .thenReturn(new PageImpl<>(List.of(cardView)));
         when(currentUser.getCurrentUserId()).thenReturn(1L);
 
         CardRespDto expected = CardRespDto.toDto(card, cryptoUtils);
@@ -126,7 +159,7 @@ public class CardServiceImplTest {
         assertThat(result.getContent().get(0).toString()).isEqualTo(expected.toString());
 
         verify(currentUser).getCurrentUserId();
-        verify(repository).findAll(any(Specification.class), eq(pageable));
+        verify(repository).findBy(any(Specification.class), any());
     }
 
     @Test
@@ -154,8 +187,8 @@ public class CardServiceImplTest {
         Pageable pageable = PageRequest.of(0, 10);
 
         // given
-        when(repository.findAll(any(Specification.class), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(card)));
+        when(repository.findBy(any(Specification.class), any()))
+                .thenReturn(new PageImpl<>(List.of(cardView)));
 
         CardRespDto expected = CardRespDto.toDto(card, cryptoUtils);
 
@@ -169,7 +202,7 @@ public class CardServiceImplTest {
         assertThat(result.getContent()).hasSize(1);
         assertThat(result.getContent().get(0).toString()).isEqualTo(expected.toString());
 
-        verify(repository).findAll(any(Specification.class), eq(pageable));
+        verify(repository).findBy(any(Specification.class), any());
     }
 
     @Test
@@ -181,34 +214,225 @@ public class CardServiceImplTest {
         dto.setToBlock(Boolean.FALSE);
         dto.setExpiryDate("12/29");
 
-        when(repository.findAll(any(Specification.class), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(card)));
+        when(repository.findBy(any(Specification.class), any()))
+                .thenReturn(new PageImpl<>(List.of(cardView)));
 
         //when
         service.getCardsList(dto, PageRequest.ofSize(10));
 
         //then
         ArgumentCaptor<Specification<CreditCard>> captor = ArgumentCaptor.captor();
-        verify(repository).findAll(captor.capture(), any(Pageable.class));
+        verify(repository).findBy(captor.capture(), any());
 
         Specification<CreditCard> spec = captor.getValue();
 
         assertThat(spec).isNotNull();
     }
 
+    @Test
+    void getCardsListSlice_shouldReturnHasNextWithoutCount() {
+        Pageable pageable = PageRequest.of(2, 1);
+
+        when(repository.findBy(any(Specification.class), any()))
+                .thenReturn(new SliceImpl<>(List.of(cardView), pageable, true));
+        when(cryptoUtils.decrypt(card.getCardNumber())).thenReturn(card.getCardNumber());
+
+        // when
+        SliceDto<CardRespDto> result = service.getCardsListSlice(new CardsListDto(), pageable);
+
+        // then
+        assertThat(result.content()).extracting(CardRespDto::getId).containsExactly(10L);
+        assertThat(result.page()).isEqualTo(new SliceDto.Meta(1, 2, true));
+        verify(repository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void getUserCardsSlice_lastPage() {
+        Pageable pageable = PageRequest.of(0, 10);
+
+        when(currentUser.getCurrentUserId()).thenReturn(1L);
+        when(repository.findBy(any(Specification.class), any()))
+                .thenReturn(new SliceImpl<>(List.of(cardView), pageable, false));
+
+        SliceDto<CardRespDto> result = service.getUserCardsSlice(new CardHolderListDto(), pageable);
+
+        assertThat(result.content()).hasSize(1);
+        assertFalse(result.page().hasNext());
+        verify(currentUser).getCurrentUserId();
+    }
+
+    @Test
+    void exportCards_shouldPassEveryRowAndCloseStream() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(repository.streamAll(any(Specification.class), anyInt()))
+                .thenReturn(Stream.of(cardView, cardView).onClose(() -> closed.set(true)));
+        when(cryptoUtils.decrypt(card.getCardNumber())).thenReturn("4111111111111111");
+
+        List<CardRespDto> exported = new ArrayList<>();
+        service.exportCards(new CardsListDto(), exported::add);
+
+        assertThat(exported).hasSize(2)
+                .extracting(CardRespDto::getCardNumber)
+                .containsOnly("4111111111111111");
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void getCardsListByCursor_shouldReturnNextCursor() {
+        when(repository.findBy(any(Specification.class), any()))
+                .thenReturn(Window.from(List.of(cardView),
+                        i -> ScrollPosition.forward(Map.of("id", card.getId())), true));
+        when(cryptoUtils.decrypt(card.getCardNumber())).thenReturn(card.getCardNumber());
+
+        // when
+        CursorPageDto<CardRespDto> result =
+                service.getCardsListByCursor(new CardsListDto(), null, Sort.by("id"), 1);
+
+        // then
+        assertThat(result.content()).hasSize(1);
+        assertTrue(result.hasNext());
+        assertThat(result.nextCursor()).isNotBlank();
+
+        CardCursor.Position next = CardCursor.decode(result.nextCursor());
+        assertThat(next.scrollPosition().getKeys()).containsEntry("id", 10L);
+        assertThat(next.sort()).isEqualTo(Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    @Test
+    void getCardsListByCursor_lastPage_shouldReturnNullCursor() {
+        when(repository.findBy(any(Specification.class), any()))
+                .thenReturn(Window.from(List.of(cardView),
+                        i -> ScrollPosition.forward(Map.of("id", card.getId())), false));
+
+        CursorPageDto<CardRespDto> result =
+                service.getCardsListByCursor(new CardsListDto(), null, Sort.unsorted(), 10);
+
+        assertFalse(result.hasNext());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void getCardsListByCursor_withUnsupportedSort_shouldThrowException() {
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class,
+                () -> service.getCardsListByCursor(new CardsListDto(), null, Sort.by("cardNumber"), 10));
+
+        assertTrue(ex.getMessage().contains("does not support sort"));
+        verify(repository, never()).findBy(any(Specification.class), any());
+    }
+
+    @Test
+    void getCardsListByCursor_withInvalidCursor_shouldThrowException() {
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class,
+                () -> service.getCardsListByCursor(new CardsListDto(), "not-a-cursor", Sort.unsorted(), 10));
+
+        assertTrue(ex.getMessage().contains("Invalid cursor"));
+    }
+
+    @Test
+    void getUserCardsByCursor_shouldKeepSortKeyInCursor() {
+        when(currentUser.getCurrentUserId()).thenReturn(1L);
+        when(repository.findBy(any(Specification.class), any()))
+                .thenReturn(Window.from(List.of(cardView),
+                        i -> ScrollPosition.forward(Map.of(
+                                "expiryDate", card.getExpiryDate(),
+                                "id", card.getId())), true));
+
+        CursorPageDto<CardRespDto> result = service.getUserCardsByCursor(
+                new CardHolderListDto(), null, Sort.by(Sort.Direction.DESC, "expiryDate"), 1);
+
+        CardCursor.Position next = CardCursor.decode(result.nextCursor());
+        assertThat(next.sort()).isEqualTo(Sort.by(Sort.Direction.DESC, "expiryDate"));
+        assertThat(next.scrollPosition().getKeys())
+                .containsEntry("expiryDate", card.getExpiryDate())
+                .containsEntry("id", 10L);
+        verify(currentUser).getCurrentUserId();
+    }
+
+    @Test
+    void getCardTransactions_owner_shouldReturnNextCursor() {
+        Instant createdAt = Instant.parse("2026-03-02T10:15:30.123456Z");
+        CardTransaction transaction = CardTransaction.builder()
+                .id(7L)
+                .cardId(card.getId())
+                .counterpartCardId(11L)
+                .type(CardTransaction.Type.DEBIT)
+                .amount(BigInteger.valueOf(5000))
+                .balanceAfter(BigInteger.valueOf(5000))
+                .createdAt(createdAt)
+                .build();
+
+        when(currentUser.getCurrentUserId()).thenReturn(1L);
+        when(repository.findById(10L)).thenReturn(Optional.of(card));
+        when(transactionRepository.findBy(any(Specification.class), any()))
+                .thenReturn(Window.from(List.of(transaction),
+                        i -> ScrollPosition.forward(Map.of("createdAt", createdAt, "id", 7L)), true));
+
+        CursorPageDto<CardTransactionDto> result = service.getCardTransactions(10L, null, 1);
+
+        assertThat(result.content()).hasSize(1);
+        assertEquals(new BigDecimal("50.00"), result.content().get(0).amount());
+        assertThat(TransactionCursor.decode(result.nextCursor()).getKeys())
+                .containsEntry("createdAt", createdAt)
+                .containsEntry("id", 7L);
+    }
+
+    @Test
+    void getCardTransactions_foreignCard_shouldThrowException() {
+        when(currentUser.getCurrentUserId()).thenReturn(2L);
+        when(currentUser.isAdmin()).thenReturn(false);
+        when(repository.findById(10L)).thenReturn(Optional.of(card));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getCardTransactions(10L, null, 10));
+        verify(transactionRepository, never()).findBy(any(Specification.class), any());
+    }
+
+    @Test
+    void getCardTransactions_admin_canViewForeignCard() {
+        when(currentUser.getCurrentUserId()).thenReturn(2L);
+        when(currentUser.isAdmin()).thenReturn(true);
+        when(repository.findById(10L)).thenReturn(Optional.of(card));
+        when(transactionRepository.findBy(any(Specification.class), any()))
+                .thenReturn(Window.from(List.of(), ScrollPosition::offset, false));
+
+        CursorPageDto<CardTransactionDto> result = service.getCardTransactions(10L, null, 10);
+
+        assertThat(result.content()).isEmpty();
+        assertNull(result.nextCursor());
+    }
+
     @Test
     void generate_shouldReturnCardNumber() {
+        when(cardNumberGenerator.generate()).thenReturn("4000001234567899");
+
         String number = service.generate();
 
-        assertNotNull(number);
-        assertFalse(number.isBlank());
+        assertEquals("4000001234567899", number);
+    }
+
+    @Test
+    void generateBatch_withCountOutOfRange_shouldThrowException() {
+        assertThrows(InvalidRequestException.class, () -> service.generate(0));
+        assertThrows(InvalidRequestException.class, () -> service.generate(1001));
+        verify(cardNumberGenerator, never()).generate(anyInt());
+    }
+
+    @Test
+    void create_shouldRegisterIssuedNumber() {
+        CardCreateDto dto = createDto(1L, "4000000000000001", "10.00");
+        when(userService.findOne(1L)).thenReturn(user);
+        when(cryptoUtils.hash("4000000000000001")).thenReturn("hash");
+
+        service.create(dto);
+
+        verify(cardNumberGenerator).register("hash");
     }
 
     @Test
     void getUserCards_shouldReturnUserCards_withDecryptedNumber() {
         // given
-        when(repository.findAll(any(Specification.class), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(card)));
+        when(repository.findBy(any(Specification.class), any()))
+                .thenReturn(new PageImpl<>(List.of(cardView)));
 
         when(cryptoUtils.decrypt("1234567890123456"))
                 .thenReturn("4111111111111111");
@@ -240,6 +464,99 @@ public class CardServiceImplTest {
 
         assertEquals("JOHN DOE", result.getCardHolder());
         verify(repository).saveAndFlush(any(CreditCard.class));
+        verify(userBalanceRepository).add(1L, BigInteger.valueOf(10_000));
+    }
+
+    @Test
+    void createBatch_shouldRejectOnlyDuplicateAndUnknownOwnerRows() {
+        User other = new User();
+        other.setId(2L);
+        other.setFirstName("Ann");
+        other.setLastName("Lee");
+
+        List<CardCreateDto> items = List.of(
+                createDto(1L, "4000000000000001", "10.00"),
+                createDto(2L, "4000000000000002", "20.00"),
+                createDto(1L, "4000000000000001", "30.00"), // повтор внутри пакета
+                createDto(3L, "4000000000000003", "40.00"), // нет такого Юзера
+                createDto(2L, "4000000000000004", "50.00")  // уже выпущена
+        );
+
+        when(userService.findAllById(any())).thenReturn(List.of(user, other));
+        when(cryptoUtils.hash(anyString())).thenAnswer(i -> "h" + i.getArgument(0));
+        when(cryptoUtils.encrypt(anyString())).thenAnswer(i -> "e" + i.getArgument(0));
+        when(repository.findExistingHashes(any())).thenReturn(List.of("h4000000000000004"));
+        when(repository.insertSkippingDuplicates(any())).thenAnswer(i -> {
+            Map<String, Long> ids = new HashMap<>();
+            long id = 100;
+            for (CreditCard c : i.<List<CreditCard>>getArgument(0)) {
+                ids.put(c.getCardNumberHash(), id++);
+            }
+            return ids;
+        });
+
+        CardBatchCreateRespDto result = service.createBatch(new CardBatchCreateDto(items));
+
+        assertEquals(5, result.total());
+        assertEquals(2, result.created());
+        assertEquals(3, result.rejected());
+        assertThat(result.results())
+                .extracting(CardCreateResultDto::status)
+                .containsExactly(
+                        CardCreateResultDto.Status.CREATED,
+                        CardCreateResultDto.Status.CREATED,
+                        CardCreateResultDto.Status.DUPLICATE,
+                        CardCreateResultDto.Status.USER_NOT_FOUND,
+                        CardCreateResultDto.Status.DUPLICATE);
+        assertThat(result.results())
+                .extracting(CardCreateResultDto::cardId)
+                .containsExactly(100L, 101L, null, null, null);
+        assertEquals("**** **** **** 0001", result.results().get(0).cardNumber());
+
+        // один IN-запрос на владельцев и одна вставка пакетом
+        verify(userService, never()).findOne(any());
+        verify(repository).insertSkippingDuplicates(argThat(cards -> cards.size() == 2));
+        verify(userBalanceRepository).add(1L, BigInteger.valueOf(1_000));
+        verify(userBalanceRepository).add(2L, BigInteger.valueOf(2_000));
+    }
+
+    @Test
+    void createBatch_concurrentDuplicate_shouldRejectOnlyThatRow() {
+        when(userService.findAllById(any())).thenReturn(List.of(user));
+        when(cryptoUtils.hash(anyString())).thenAnswer(i -> "h" + i.getArgument(0));
+        when(cryptoUtils.encrypt(anyString())).thenAnswer(i -> "e" + i.getArgument(0));
+        when(repository.findExistingHashes(any())).thenReturn(List.of());
+        // второй номер выпущен параллельным запросом после проверки: ON CONFLICT его пропустил
+        when(repository.insertSkippingDuplicates(any()))
+                .thenReturn(Map.of("h4000000000000001", 100L, "h4000000000000003", 101L));
+
+        CardBatchCreateRespDto result = service.createBatch(new CardBatchCreateDto(List.of(
+                createDto(1L, "4000000000000001", "10.00"),
+                createDto(1L, "4000000000000002", "20.00"),
+                createDto(1L, "4000000000000003", "30.00"))));
+
+        assertEquals(2, result.created());
+        assertEquals(1, result.rejected());
+        assertThat(result.results())
+                .extracting(CardCreateResultDto::status)
+                .containsExactly(
+                        CardCreateResultDto.Status.CREATED,
+                        CardCreateResultDto.Status.DUPLICATE,
+                        CardCreateResultDto.Status.CREATED);
+        assertThat(result.results())
+                .extracting(CardCreateResultDto::cardId)
+                .containsExactly(100L, null, 101L);
+        verify(userBalanceRepository).add(1L, BigInteger.valueOf(4_000));
+        verify(cardNumberGenerator, never()).register("h4000000000000002");
+    }
+
+    private static CardCreateDto createDto(Long userId, String number, String balance) {
+        CardCreateDto dto = new CardCreateDto();
+        dto.setUserId(userId);
+        dto.setCardNumber(number);
+        dto.setExpiryDate("12/29");
+        dto.setBalance(new BigDecimal(balance));
+        return dto;
     }
 
     @Test
@@ -257,6 +574,67 @@ public class CardServiceImplTest {
         assertThrows(ConflictException.class, () -> service.create(dto));
     }
 
+    @Test
+    void create_shouldStoreCardNumberHash() {
+        CardCreateDto dto = new CardCreateDto();
+        dto.setUserId(1L);
+        dto.setCardNumber("1234567890123456");
+        dto.setExpiryDate("12/29");
+        dto.setBalance(new BigDecimal("100.00"));
+
+        when(userService.findOne(1L)).thenReturn(user);
+        when(cryptoUtils.hash("1234567890123456")).thenReturn("hash");
+        when(repository.saveAndFlush(any())).thenAnswer(i -> i.getArgument(0));
+
+        service.create(dto);
+
+        ArgumentCaptor<CreditCard> captor = ArgumentCaptor.forClass(CreditCard.class);
+        verify(repository).saveAndFlush(captor.capture());
+        assertEquals("hash", captor.getValue().getCardNumberHash());
+    }
+
+    @Test
+    void create_shouldThrowConflict_whenHashAlreadyExists() {
+        CardCreateDto dto = new CardCreateDto();
+        dto.setUserId(1L);
+        dto.setCardNumber("1234567890123456");
+        dto.setExpiryDate("12/29");
+        dto.setBalance(new BigDecimal("100.00"));
+
+        when(userService.findOne(1L)).thenReturn(user);
+        when(cryptoUtils.hash("1234567890123456")).thenReturn("hash");
+        when(repository.existsByCardNumberHash("hash")).thenReturn(true);
+
+        ConflictException ex = assertThrows(ConflictException.class, () -> service.create(dto));
+
+        assertTrue(ex.getMessage().contains("3456"));
+        assertFalse(ex.getMessage().contains("1234567890123456"));
+        verify(repository, never()).saveAndFlush(any());
+        verify(cryptoUtils, never()).decrypt(anyString());
+    }
+
+    @Test
+    void findByNumber_shouldLookupByHash() {
+        when(cryptoUtils.hash("4111111111111111")).thenReturn("hash");
+        when(repository.findByCardNumberHash("hash")).thenReturn(Optional.of(card));
+
+        CardRespDto result = service.findByNumber(new CardNumberDto("4111111111111111"));
+
+        assertEquals(10L, result.getId());
+        verify(repository).findByCardNumberHash("hash");
+        verify(repository, never()).findBy(any(Specification.class), any());
+    }
+
+    @Test
+    void findByNumber_notFound() {
+        when(cryptoUtils.hash("4111111111111111")).thenReturn("hash");
+        when(repository.findByCardNumberHash("hash")).thenReturn(Optional.empty());
+
+        EntityNotFoundException ex = assertThrows(EntityNotFoundException.class,
+                () -> service.findByNumber(new CardNumberDto("4111111111111111")));
+        assertTrue(ex.getMessage().contains("Card not found"));
+    }
+
     @Test
     void blockRequest_shouldBlockCard() {
 
@@ -316,6 +694,12 @@ public class CardServiceImplTest {
         Boolean result = service.transfer(dto);
 
         assertTrue(result);
+
+        InOrder inOrder = inOrder(repository, transactionRepository);
+        inOrder.verify(repository).lockInIdOrder(List.of(1L, 2L));
+        inOrder.verify(repository).withdraw(any(), any(), any(), any(), any());
+        inOrder.verify(repository).deposit(any(), any(), any(), any(), any());
+        inOrder.verify(transactionRepository).recordTransfer(1L, 2L, BigInteger.valueOf(5000));
     }
 
     @Test
@@ -349,6 +733,42 @@ public class CardServiceImplTest {
         OperationRejectedException ex = assertThrows(OperationRejectedException.class,
                 () -> service.transfer(dto));
         assertTrue(ex.getMessage().contains("Error transferring to Card:"));
+        verify(transactionRepository, never()).recordTransfer(any(), any(), any());
+    }
+
+    @Test
+    void transferBatch_shouldReportPerItemOutcome() {
+        CardTransferDto first = new CardTransferDto();
+        first.setFromId(1L);
+        first.setToId(2L);
+        first.setAmount(new BigDecimal("50.00"));
+
+        CardTransferDto second = new CardTransferDto();
+        second.setFromId(2L);
+        second.setToId(3L);
+        second.setAmount(new BigDecimal("0.10"));
+
+        when(currentUser.getCurrentUserId()).thenReturn(1L);
+        when(repository.transferBatch(eq(1L), any())).thenReturn(new int[]{2, 0});
+
+        CardBatchTransferRespDto result = service.transferBatch(
+                new CardBatchTransferDto(List.of(first, second)));
+
+        verify(repository).lockInIdOrder(new TreeSet<>(List.of(1L, 2L, 3L)));
+
+        assertEquals(2, result.total());
+        assertEquals(1, result.succeeded());
+        assertEquals(1, result.rejected());
+        assertEquals(CardTransferResultDto.Status.SUCCESS, result.results().get(0).status());
+        assertEquals(CardTransferResultDto.Status.REJECTED, result.results().get(1).status());
+        assertEquals("0.10", result.results().get(1).amount());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CardRepositoryCustom.Transfer>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).transferBatch(eq(1L), captor.capture());
+        assertThat(captor.getValue()).containsExactly(
+                new CardRepositoryCustom.Transfer(1L, 2L, BigInteger.valueOf(5000)),
+                new CardRepositoryCustom.Transfer(2L, 3L, BigInteger.valueOf(10)));
     }
 
     @Test
@@ -366,6 +786,7 @@ public class CardServiceImplTest {
         verify(repository).findByIdWithLock(1L);
         verify(repository).delete(card);
         verifyNoMoreInteractions(repository);
+        verify(userBalanceRepository).add(1L, BigInteger.valueOf(-10_000));
     }
 
     @Test
@@ -431,15 +852,48 @@ public class CardServiceImplTest {
         assertTrue(ex.getMessage().contains("Card not found"));
     }
 
+    @Test
+    void approveBlockRequests_shouldBlockOnlyFromAllowedStatuses() {
+        when(repository.blockRequested(any(), any(), any()))
+                .thenReturn(List.of(9L, 2L));
+
+        CardBlockApproveRespDto result = service.approveBlockRequests(new CardBlockApproveDto(5L, null));
+
+        assertEquals(2, result.blocked());
+        assertEquals(List.of(2L, 9L), result.cardIds());
+        verify(repository).blockRequested(List.of(CreditCard.CardStatus.ACTIVE), 5L, null);
+        verifyNoInteractions(cryptoUtils);
+    }
+
+    @Test
+    void approveBlockRequests_nothingToApprove() {
+        when(repository.blockRequested(any(), any(), any()))
+                .thenReturn(List.of());
+
+        CardBlockApproveRespDto result = service.approveBlockRequests(new CardBlockApproveDto(null, List.of(1L)));
+
+        assertEquals(0, result.blocked());
+        assertTrue(result.cardIds().isEmpty());
+    }
+
     @Test
     void getTotalBalanceByUser_shouldReturnDecimalString() {
-        when(repository.sumBalanceByUserId(1L))
-                .thenReturn(BigInteger.valueOf(12345));
+        when(userBalanceRepository.findById(1L))
+                .thenReturn(Optional.of(new UserBalance(1L, BigInteger.valueOf(12345))));
         when(currentUser.getCurrentUserId()).thenReturn(1L);
 
         String result = service.getTotalBalanceByUser();
 
         assertEquals("123.45", result);
+        verify(repository, never()).sumBalanceByUserId(any());
+    }
+
+    @Test
+    void getTotalBalanceByUser_withoutCards_shouldReturnZero() {
+        when(userBalanceRepository.findById(1L)).thenReturn(Optional.empty());
+        when(currentUser.getCurrentUserId()).thenReturn(1L);
+
+        assertEquals("0.00", service.getTotalBalanceByUser());
     }
 
 }
@@ -0,0 +1,87 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.RetryConfig;
+import com.example.bankcards.dto.CardTransferDto;
+import com.example.bankcards.entity.CreditCard;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardTransactionRepository;
+import com.example.bankcards.repository.UserBalanceRepository;
+import com.example.bankcards.util.CryptoUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Повтор перевода при откате транзакции из-за конкурентного доступа.
+ */
+@SpringJUnitConfig({RetryConfig.class, CardServiceImpl.class})
+class CardServiceRetryTest {
+
+    @Autowired
+    CardService service;
+
+    @MockitoBean
+    CardRepository repository;
+
+    @MockitoBean
+    CardTransactionRepository transactionRepository;
+
+    @MockitoBean
+    UserBalanceRepository userBalanceRepository;
+
+    @MockitoBean
+    UserService userService;
+
+    @MockitoBean
+    CurrentUserService currentUser;
+
+    @MockitoBean
+    CryptoUtils cryptoUtils;
+
+    @MockitoBean
+    CardNumberGenerator cardNumberGenerator;
+
+    private CardTransferDto transferDto() {
+        CardTransferDto dto = new CardTransferDto();
+        dto.setFromId(2L);
+        dto.setToId(1L);
+        dto.setAmount(new BigDecimal("50.00"));
+        return dto;
+    }
+
+    @Test
+    void transfer_shouldRetry_whenDeadlockDetected() {
+        when(currentUser.getCurrentUserId()).thenReturn(1L);
+        when(repository.withdraw(eq(2L), eq(1L), any(), eq(CreditCard.CardStatus.ACTIVE), eq(false)))
+                .thenThrow(new CannotAcquireLockException("deadlock detected"))
+                .thenReturn(1);
+        when(repository.deposit(eq(1L), eq(1L), any(), eq(CreditCard.CardStatus.ACTIVE), eq(false)))
+                .thenReturn(1);
+
+        assertTrue(service.transfer(transferDto()));
+
+        verify(repository, times(2)).lockInIdOrder(any());
+        verify(repository, times(2)).withdraw(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void transfer_shouldGiveUp_afterMaxAttempts() {
+        when(currentUser.getCurrentUserId()).thenReturn(1L);
+        when(repository.withdraw(any(), any(), any(), any(), any()))
+                .thenThrow(new CannotAcquireLockException("deadlock detected"));
+
+        assertThrows(CannotAcquireLockException.class, () -> service.transfer(transferDto()));
+
+        verify(repository, times(3)).withdraw(any(), any(), any(), any(), any());
+        verify(repository, never()).deposit(any(), any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardTransferDto;
+import com.example.bankcards.entity.CreditCard;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.CryptoUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Нагрузочная проверка встречных переводов по одной паре карт.
+ * Требует запущенной БД из docker-compose.yml (как и BankcardsAppTests).
+ */
+@SpringBootTest
+class CardTransferConcurrencyIT {
+    private static final int THREADS = 32;
+    private static final int TRANSFERS = 2_000;
+    private static final BigInteger INITIAL_BALANCE = BigInteger.valueOf(1_000_000);
+
+    @Autowired
+    CardService service;
+
+    @Autowired
+    CardRepository cardRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    CryptoUtils cryptoUtils;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    CurrentUserService currentUser;
+
+    private User user;
+    private CreditCard first;
+    private CreditCard second;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@stress.test")
+                .password("not-used")
+                .firstName("STRESS")
+                .lastName("TEST")
+                .role(User.Role.USER)
+                .build());
+        first = cardRepository.save(card("4000006806224829"));
+        second = cardRepository.save(card("4000001234567899"));
+
+        when(currentUser.getCurrentUserId()).thenReturn(user.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cardRepository.deleteAllById(List.of(first.getId(), second.getId()));
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    @DisplayName("Встречные переводы по одной паре карт выполняются без deadlock")
+    void oppositeTransfers_shouldNotDeadlock() throws Exception {
+        long deadlocksBefore = deadlocks();
+        AtomicInteger failures = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>(TRANSFERS);
+        for (int i = 0; i < TRANSFERS; i++) {
+            boolean forward = i % 2 == 0;
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    service.transfer(forward
+                            ? transfer(first.getId(), second.getId())
+                            : transfer(second.getId(), first.getId()));
+                } catch (RuntimeException ex) {
+                    failures.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(failures).hasValue(0);
+        assertThat(deadlocks() - deadlocksBefore).isZero();
+        // переводов в обе стороны поровну — балансы вернулись к исходным
+        assertThat(cardRepository.findById(first.getId()).orElseThrow().getBalance())
+                .isEqualByComparingTo(INITIAL_BALANCE);
+        assertThat(cardRepository.findById(second.getId()).orElseThrow().getBalance())
+                .isEqualByComparingTo(INITIAL_BALANCE);
+    }
+
+    private CreditCard card(String number) {
+        // номер может уже существовать в БД: делаем его уникальным через hash
+        String hash = cryptoUtils.hash(number + UUID.randomUUID());
+        return CreditCard.builder()
+                .owner(user)
+                .cardHolder("STRESS TEST")
+                .cardNumber(cryptoUtils.encrypt(number + hash.substring(0, 8)))
+                .cardNumberHash(hash)
+                .expiryDate(LocalDate.now().plusYears(3))
+                .balance(INITIAL_BALANCE)
+                .build();
+    }
+
+    private static CardTransferDto transfer(Long fromId, Long toId) {
+        CardTransferDto dto = new CardTransferDto();
+        dto.setFromId(fromId);
+        dto.setToId(toId);
+        dto.setAmount(new BigDecimal("0.01"));
+        return dto;
+    }
+
+    private long deadlocks() throws InterruptedException {
+        // статистика pg_stat_database обновляется асинхронно
+        Thread.sleep(1_000);
+        jdbcTemplate.execute("SELECT pg_stat_clear_snapshot()");
+        Long value = jdbcTemplate.queryForObject(
+                "SELECT deadlocks FROM pg_stat_database WHERE datname = current_database()", Long.class);
+        return value == null ? 0 : value;
+    }
+}
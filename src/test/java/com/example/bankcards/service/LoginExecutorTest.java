@@ -0,0 +1,59 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LoginExecutorTest {
+
+    LoginExecutor executor = new LoginExecutor(1, 1, Duration.ofSeconds(2));
+    CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.destroy();
+    }
+
+    @Test
+    void submit_shouldRunOnLoginThread() {
+        String thread = executor.submit(() -> Thread.currentThread().getName()).join();
+
+        assertThat(thread).startsWith("login-");
+    }
+
+    @Test
+    void submit_shouldRejectWhenQueueIsFull() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        executor.bindTo(meterRegistry);
+
+        CompletableFuture<Void> running = executor.submit(this::block);
+        CompletableFuture<Void> queued = executor.submit(this::block);
+
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class,
+                () -> executor.submit(this::block));
+
+        assertThat(ex.getRetryAfter()).isEqualTo(Duration.ofSeconds(2));
+        assertThat(meterRegistry.get("login.executor.rejected").functionCounter().count()).isEqualTo(1);
+
+        release.countDown();
+        CompletableFuture.allOf(running, queued).join();
+    }
+
+    private Void block() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
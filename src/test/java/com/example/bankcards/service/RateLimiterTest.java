@@ -0,0 +1,97 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    AtomicLong now = new AtomicLong();
+    RateLimitProperties.Rule rule = rule("transfer", 3, Duration.ofSeconds(3));
+    RateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRules(List.of(rule));
+        limiter = new RateLimiter(properties, now::get);
+    }
+
+    private static RateLimitProperties.Rule rule(String name, int capacity, Duration period) {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setName(name);
+        rule.setPatterns(List.of("/api/v1/cards/transfer"));
+        rule.setCapacity(capacity);
+        rule.setPeriod(period);
+        return rule;
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    void tryAcquire_shouldAllowBurstUpToCapacity() {
+        assertThat(limiter.tryAcquire(rule, "user:1")).isEmpty();
+        assertThat(limiter.tryAcquire(rule, "user:1")).isEmpty();
+        assertThat(limiter.tryAcquire(rule, "user:1")).isEmpty();
+
+        assertThat(limiter.tryAcquire(rule, "user:1")).contains(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void tryAcquire_shouldRefillOneRequestPerInterval() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(rule, "user:1");
+        }
+
+        advance(Duration.ofMillis(400));
+        assertThat(limiter.tryAcquire(rule, "user:1")).contains(Duration.ofMillis(600));
+
+        advance(Duration.ofMillis(600));
+        assertThat(limiter.tryAcquire(rule, "user:1")).isEmpty();
+        assertThat(limiter.tryAcquire(rule, "user:1")).isPresent();
+    }
+
+    @Test
+    void tryAcquire_shouldNotAccumulateMoreThanCapacity() {
+        limiter.tryAcquire(rule, "user:1");
+        advance(Duration.ofMinutes(10));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(rule, "user:1")).isEmpty();
+        }
+        assertThat(limiter.tryAcquire(rule, "user:1")).isPresent();
+    }
+
+    @Test
+    void tryAcquire_shouldKeepSeparateBucketPerClient() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(rule, "user:1");
+        }
+
+        assertThat(limiter.tryAcquire(rule, "user:1")).isPresent();
+        assertThat(limiter.tryAcquire(rule, "ip:10.0.0.1")).isEmpty();
+    }
+
+    @Test
+    void bindTo_shouldCountRejectedRequestsPerRule() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        limiter.bindTo(meterRegistry);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire(rule, "user:1");
+        }
+
+        assertThat(meterRegistry.get("rate.limit.rejected").tag("rule", "transfer").functionCounter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("rate.limit.buckets").gauge().value()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.util.CryptoUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+    static final String KEY = "1234567890123456";
+    static final String VECTOR = "abcdef9876543210";
+    static final String HMAC_KEY = "6d0c1e7f3a9b4c2d8e5f7a1b3c9d2e4f";
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    CryptoUtils cryptoUtils = new CryptoUtils(KEY, VECTOR, HMAC_KEY);
+    RefreshTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RefreshTokenService(jdbcTemplate, cryptoUtils, Duration.ofDays(30));
+    }
+
+    @Test
+    void issue_shouldStoreOnlyHash() {
+        RefreshTokenService.Issued issued = service.issue(1L);
+
+        assertThat(issued.token()).hasSize(43);
+        assertThat(issued.sessionId()).isNotBlank();
+        verify(jdbcTemplate).update(contains("INSERT INTO refresh_token"),
+                eq(cryptoUtils.hash(issued.token())), eq(1L), eq(issued.sessionId()), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void consume_shouldReturnOwnerAndSessionWithoutIssuing() {
+        doAnswer(inv -> List.of(inv.<RowMapper<Object>>getArgument(1).mapRow(resultSet(5L, "sid-1"), 0)))
+                .when(jdbcTemplate).query(contains("UPDATE refresh_token"), any(RowMapper.class), eq(cryptoUtils.hash("old")));
+
+        RefreshTokenService.Consumed consumed = service.consume("old");
+
+        assertThat(consumed.userId()).isEqualTo(5L);
+        assertThat(consumed.sessionId()).isEqualTo("sid-1");
+        verify(jdbcTemplate, never()).update(contains("INSERT INTO refresh_token"), any(Object[].class));
+    }
+
+    @Test
+    void issue_inSession_shouldContinueFamily() {
+        RefreshTokenService.Issued issued = service.issue(5L, "sid-1");
+
+        assertThat(issued.userId()).isEqualTo(5L);
+        assertThat(issued.sessionId()).isEqualTo("sid-1");
+        verify(jdbcTemplate).update(contains("INSERT INTO refresh_token"),
+                eq(cryptoUtils.hash(issued.token())), eq(5L), eq("sid-1"), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void consume_usedToken_shouldRevokeSession() {
+        when(jdbcTemplate.query(contains("UPDATE refresh_token"), any(RowMapper.class), eq(cryptoUtils.hash("reused"))))
+                .thenReturn(List.of());
+
+        assertThrows(BadCredentialsException.class, () -> service.consume("reused"));
+
+        verify(jdbcTemplate).update(contains("DELETE FROM refresh_token"), eq(cryptoUtils.hash("reused")));
+        verify(jdbcTemplate, never()).update(contains("INSERT INTO refresh_token"), any(Object[].class));
+    }
+
+    private static ResultSet resultSet(long userId, String familyId) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("user_id")).thenReturn(userId);
+        when(rs.getString("family_id")).thenReturn(familyId);
+        return rs;
+    }
+}
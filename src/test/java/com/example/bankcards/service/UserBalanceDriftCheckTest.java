@@ -0,0 +1,79 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.repository.UserBalanceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserBalanceDriftCheckTest {
+
+    @Mock
+    UserBalanceRepository repository;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private static UserBalanceRepository.Drift drift(Long userId, long stored, long actual) {
+        return new UserBalanceRepository.Drift() {
+            public Long getUserId() { return userId; }
+            public BigInteger getStored() { return BigInteger.valueOf(stored); }
+            public BigInteger getActual() { return BigInteger.valueOf(actual); }
+        };
+    }
+
+    @Test
+    void check_shouldPublishDriftWithoutRepair() {
+        when(repository.findDrift()).thenReturn(List.of(drift(1L, 100, 150), drift(2L, 0, 10)));
+
+        new UserBalanceDriftCheck(repository, transactionTemplate, meterRegistry, false).check();
+
+        assertThat(meterRegistry.get("card.user-balance.drift").gauge().value()).isEqualTo(2);
+        verifyNoInteractions(transactionTemplate);
+        verify(repository, never()).recalculate(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void check_shouldRecalculateDrifted_whenRepairEnabled() {
+        when(repository.findDrift()).thenReturn(List.of(drift(1L, 100, 150)));
+        doAnswer(inv -> {
+            inv.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        new UserBalanceDriftCheck(repository, transactionTemplate, meterRegistry, true).check();
+
+        verify(repository).lockByUserId(1L);
+        verify(repository).recalculate(1L);
+        assertThat(meterRegistry.get("card.user-balance.repaired").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void check_noDrift_shouldResetGauge() {
+        when(repository.findDrift()).thenReturn(List.of());
+
+        new UserBalanceDriftCheck(repository, transactionTemplate, meterRegistry, true).check();
+
+        assertThat(meterRegistry.get("card.user-balance.drift").gauge().value()).isZero();
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheTest {
+
+    @Mock
+    UserRepository repository;
+
+    SimpleMeterRegistry meterRegistry;
+    UserCache cache;
+    User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserCache(repository, 100, Duration.ofMinutes(5));
+        cache.bindTo(meterRegistry);
+        user = User.builder()
+                .id(1L)
+                .email("email@email.com")
+                .password("encoded")
+                .role(User.Role.USER)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void findByEmail_shouldQueryRepositoryOnce() {
+        when(repository.findByEmail("email@email.com")).thenReturn(Optional.of(user));
+
+        assertThat(cache.findByEmail("email@email.com")).get()
+                .extracting(User::getId, User::getPassword, User::getRole)
+                .containsExactly(1L, "encoded", User.Role.USER);
+        assertThat(cache.findByEmail("email@email.com")).isPresent();
+
+        verify(repository, times(1)).findByEmail("email@email.com");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "users.by-email").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "users.by-email").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void findById_shouldReturnDetachedCopy() {
+        when(repository.findById(1L)).thenReturn(Optional.of(user));
+
+        User cached = cache.findById(1L).orElseThrow();
+
+        assertThat(cached).isNotSameAs(user);
+        assertThat(cached.getEmail()).isEqualTo("email@email.com");
+        assertThat(cached.getCards()).isEmpty();
+    }
+
+    @Test
+    void findById_shouldNotCacheMissingUser() {
+        when(repository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThat(cache.findById(2L)).isEmpty();
+        assertThat(cache.findById(2L)).isEmpty();
+
+        verify(repository, times(2)).findById(2L);
+    }
+
+    @Test
+    void evict_shouldReloadUser() {
+        when(repository.findById(1L)).thenReturn(Optional.of(user));
+        when(repository.findByEmail("email@email.com")).thenReturn(Optional.of(user));
+        cache.findById(1L);
+        cache.findByEmail("email@email.com");
+
+        cache.evict(1L, "email@email.com");
+        cache.findById(1L);
+        cache.findByEmail("email@email.com");
+
+        verify(repository, times(2)).findById(1L);
+        verify(repository, times(2)).findByEmail("email@email.com");
+    }
+
+    @Test
+    void evict_insideTransaction_shouldWaitForCommit() {
+        when(repository.findById(1L)).thenReturn(Optional.of(user));
+        cache.findById(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evict(1L);
+        cache.findById(1L);
+        verify(repository, times(1)).findById(1L);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        cache.findById(1L);
+        verify(repository, times(2)).findById(1L);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.SliceDto;
 import com.example.bankcards.dto.UserFilterDto;
 import com.example.bankcards.dto.UserRespDto;
 import com.example.bankcards.dto.UserUpdateDto;
@@ -19,6 +20,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.List;
@@ -28,6 +30,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,6 +39,15 @@ class UserServiceImplTest {
     @Mock
     private UserRepository repository;
 
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @InjectMocks
     private UserServiceImpl service;
 
@@ -56,7 +68,8 @@ class UserServiceImplTest {
                 "John",
                 "Dow",
                 "email@email.com",
-                User.Role.USER
+                User.Role.USER,
+                null
         );
 
         Pageable pageable = PageRequest.of(0, 10);
@@ -78,13 +91,31 @@ class UserServiceImplTest {
         verify(repository).findAll(any(Specification.class), eq(pageable));
     }
 
+    @Test
+    void findSlice_shouldReturnHasNextWithoutCount() {
+        UserFilterDto dto = new UserFilterDto(null, null, null, null, null);
+        Pageable pageable = PageRequest.of(0, 1);
+
+        when(repository.findBy(any(Specification.class), any()))
+                .thenReturn(new SliceImpl<>(List.of(user), pageable, true));
+
+        // when
+        SliceDto<UserRespDto> actual = service.findSlice(dto, pageable);
+
+        // then
+        assertThat(actual.content()).hasSize(1);
+        assertThat(actual.page()).isEqualTo(new SliceDto.Meta(1, 0, true));
+        verify(repository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
     @Test
     void findAll_shouldCreateSpecification() {
         UserFilterDto dto = new UserFilterDto(
                 "John",
                 "Dow",
                 "email@email.com",
-                User.Role.USER
+                User.Role.USER,
+                null
         );
         Pageable pageable = PageRequest.of(0, 10);
 
@@ -104,21 +135,40 @@ class UserServiceImplTest {
 
     @Test
     void findOne_ok() {
-        when(repository.findById(1L)).thenReturn(Optional.of(user));
+        when(userCache.findById(1L)).thenReturn(Optional.of(user));
 
         User actual = service.findOne(1L);
 
         assertThat(actual).isEqualTo(user);
+        verify(repository, never()).findById(any());
     }
 
     @Test
     void findOne_shouldThrowNotFoundException() {
-        when(repository.findById(1L)).thenReturn(Optional.empty());
+        when(userCache.findById(1L)).thenReturn(Optional.empty());
 
         EntityNotFoundException ex =  assertThrows(EntityNotFoundException.class, () -> service.findOne(1L));
         assertThat(ex.getMessage()).contains("User not found");
     }
 
+    @Test
+    void revokeTokens_ok() {
+        when(userCache.findById(1L)).thenReturn(Optional.of(user));
+
+        service.revokeTokens(1L);
+
+        verify(tokenRevocationService).revokeAllForUser(1L);
+        verify(refreshTokenService).revokeAllForUser(1L);
+    }
+
+    @Test
+    void revokeTokens_shouldThrowNotFoundException() {
+        when(userCache.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> service.revokeTokens(1L));
+        verify(tokenRevocationService, never()).revokeAllForUser(any());
+    }
+
     @Test
     void update_success() {
         UserUpdateDto dto = new UserUpdateDto();
@@ -143,6 +193,7 @@ class UserServiceImplTest {
 
         verify(repository).findById(1L);
         verify(repository).saveAndFlush(expected);
+        verify(userCache).evict(1L, null, "new@new.com");
     }
 
     @Test
@@ -163,5 +214,6 @@ class UserServiceImplTest {
                 () -> service.update(1L, new UserUpdateDto()));
 
         assertThat(ex.getMessage()).contains("Email already exists:");
+        verify(userCache, never()).evict(any(), any(String[].class));
     }
 }
\ No newline at end of file
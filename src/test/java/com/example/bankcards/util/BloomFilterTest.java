@@ -0,0 +1,66 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void put_shouldNeverGiveFalseNegatives() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        SplittableRandom random = new SplittableRandom(42);
+        long[][] keys = new long[10_000][];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new long[]{random.nextLong(), random.nextLong()};
+            filter.put(keys[i][0], keys[i][1]);
+        }
+
+        for (long[] key : keys) {
+            assertTrue(filter.mightContain(key[0], key[1]));
+        }
+    }
+
+    @Test
+    void mightContain_falsePositiveRateShouldStayNearFpp() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(random.nextLong(), random.nextLong());
+        }
+
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain(random.nextLong(), random.nextLong()))
+                .count();
+
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    void put_shouldReportWhetherKeyWasNew() {
+        BloomFilter filter = BloomFilter.create(100, 0.01);
+
+        assertTrue(filter.put(1L, 2L));
+        assertFalse(filter.put(1L, 2L));
+    }
+
+    @Test
+    void put_isThreadSafe() {
+        BloomFilter filter = BloomFilter.create(100_000, 0.001);
+
+        IntStream.range(0, 100_000).parallel().forEach(i -> filter.put(i * 0x9E3779B97F4A7C15L, i));
+
+        IntStream.range(0, 100_000).forEach(i ->
+                assertTrue(filter.mightContain(i * 0x9E3779B97F4A7C15L, i)));
+    }
+
+    @Test
+    void create_shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(10, 1.0));
+    }
+}
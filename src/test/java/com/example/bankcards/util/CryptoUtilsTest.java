@@ -0,0 +1,78 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CryptoUtilsTest {
+    private final CryptoUtils cryptoUtils =
+            new CryptoUtils("1234567890123456", "abcdef9876543210", "hmac-test-key");
+
+    @Test
+    void encryptDecrypt_roundTrip() {
+        String encrypted = cryptoUtils.encrypt("4000006806224829");
+
+        assertNotEquals("4000006806224829", encrypted);
+        assertEquals("4000006806224829", cryptoUtils.decrypt(encrypted));
+    }
+
+    @Test
+    void encrypt_isCompatibleWithStoredCiphertext() {
+        // значение, зашифрованное прежней реализацией (Cipher.getInstance на каждый вызов)
+        assertEquals("6mKxbemh7gLBtRHpc28Gyu00Dcy2o+3BK6Ez1WEdBiY=",
+                cryptoUtils.encrypt("4000006806224829"));
+    }
+
+    @Test
+    void byteApi_roundTrip() {
+        byte[] plain = "4111111111111111".getBytes(StandardCharsets.US_ASCII);
+
+        assertArrayEquals(plain, cryptoUtils.decrypt(cryptoUtils.encrypt(plain)));
+    }
+
+    @Test
+    void hash_isDeterministicHex() {
+        String hash = cryptoUtils.hash("4000006806224829");
+
+        assertEquals(hash, cryptoUtils.hash("4000006806224829"));
+        assertNotEquals(hash, cryptoUtils.hash("4000006806224828"));
+        assertThat(hash).hasSize(64).matches("[0-9a-f]+");
+    }
+
+    @Test
+    void decrypt_invalidInput_shouldNotBreakNextCalls() {
+        String encrypted = cryptoUtils.encrypt("4000006806224829");
+
+        assertThrows(RuntimeException.class, () -> cryptoUtils.decrypt(new byte[]{1, 2, 3}));
+
+        assertEquals("4000006806224829", cryptoUtils.decrypt(encrypted));
+    }
+
+    @Test
+    void encryptDecrypt_concurrentCalls() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> tasks = IntStream.range(0, 1_000)
+                    .mapToObj(i -> (Callable<Boolean>) () -> {
+                        String value = String.format("40000068062%05d", i);
+                        return value.equals(cryptoUtils.decrypt(cryptoUtils.encrypt(value)));
+                    })
+                    .toList();
+
+            for (Future<Boolean> result : executor.invokeAll(tasks)) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchModeTest {
+
+    @Test
+    void contains_shouldWrapLowercasedValue() {
+        assertEquals("%smith%", SearchMode.CONTAINS.pattern("SMITH"));
+    }
+
+    @Test
+    void prefix_shouldAppendWildcardOnly() {
+        assertEquals("smi%", SearchMode.PREFIX.pattern("Smi"));
+    }
+
+    @Test
+    void pattern_shouldEscapeLikeWildcards() {
+        assertEquals("%john\\_doe\\%%", SearchMode.CONTAINS.pattern("john_doe%"));
+        assertEquals("a\\\\b%", SearchMode.PREFIX.pattern("a\\b"));
+    }
+}